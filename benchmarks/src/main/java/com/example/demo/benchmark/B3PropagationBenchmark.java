@@ -0,0 +1,104 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.telemetry.propagation.FastB3Propagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+import io.opentelemetry.extension.trace.propagation.B3Propagator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * B3 propagation of a {@code /hello} request: extracting the caller's headers, and injecting them into an
+ * outgoing call made while the request is being served. {@code implementation} picks the stock
+ * {@code B3Propagator} or {@link FastB3Propagator}; {@code format} the header format, both extracted and
+ * injected. Headers live in maps, as in a servlet request, and injecting overwrites existing entries, so the
+ * carrier itself allocates nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+public class B3PropagationBenchmark {
+
+    private static final TextMapGetter<Map<String, String>> GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(Map<String, String> carrier) {
+            return carrier.keySet();
+        }
+
+        @Override
+        public String get(Map<String, String> carrier, String key) {
+            return carrier == null ? null : carrier.get(key);
+        }
+    };
+
+    private static final TextMapSetter<Map<String, String>> SETTER = Map::put;
+
+    @Param({"sdk", "fast"})
+    public String implementation;
+
+    @Param({"multi", "single"})
+    public String format;
+
+    private TextMapPropagator propagator;
+    private final Map<String, String> incoming = new HashMap<>();
+    private final Map<String, String> outgoing = new HashMap<>();
+    private Context extracted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean single = "single".equals(format);
+        if ("sdk".equals(implementation)) {
+            propagator = single ? B3Propagator.injectingSingleHeader() : B3Propagator.injectingMultiHeaders();
+        } else {
+            propagator = single ? FastB3Propagator.injectingSingleHeader() : FastB3Propagator.injectingMultiHeaders();
+        }
+        if (single) {
+            incoming.put("b3", "0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-1");
+        } else {
+            incoming.put("X-B3-TraceId", "0af7651916cd43dd8448eb211c80319c");
+            incoming.put("X-B3-SpanId", "b7ad6b7169203331");
+            incoming.put("X-B3-Sampled", "1");
+        }
+        extracted = propagator.extract(Context.root(), incoming, GETTER);
+        propagator.inject(extracted, outgoing, SETTER);
+    }
+
+    @Benchmark
+    public Context extract() {
+        return propagator.extract(Context.root(), incoming, GETTER);
+    }
+
+    @Benchmark
+    public Map<String, String> inject() {
+        propagator.inject(extracted, outgoing, SETTER);
+        return outgoing;
+    }
+
+    @Benchmark
+    public Map<String, String> helloRequest() {
+        Context context = propagator.extract(Context.root(), incoming, GETTER);
+        try (Scope ignored = context.makeCurrent()) {
+            propagator.inject(Context.current(), outgoing, SETTER);
+        }
+        return outgoing;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.telemetry.propagation.CompositePropagator;
+import com.example.demo.telemetry.propagation.FastB3Propagator;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.extension.trace.propagation.JaegerPropagator;
+import io.opentelemetry.extension.trace.propagation.OtTracePropagator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Extracting the trace context of a request from a mixed W3C/B3 fleet: {@code TextMapPropagator.composite},
+ * which runs every propagator and looks up each of their headers, versus {@link CompositePropagator}, which
+ * scans the headers once. The carrier is a list of headers searched linearly and case-insensitively, as in a
+ * servlet container, with a browser's worth of other headers around the propagation ones. {@code formats=4}
+ * adds Jaeger and OT propagators, neither of which the request uses, to show how cost grows with formats.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompositePropagationBenchmark {
+
+    private static final TextMapGetter<List<String[]>> GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(List<String[]> carrier) {
+            List<String> keys = new ArrayList<>(carrier.size());
+            for (String[] header : carrier) {
+                keys.add(header[0]);
+            }
+            return keys;
+        }
+
+        @Override
+        public String get(List<String[]> carrier, String key) {
+            if (carrier == null) {
+                return null;
+            }
+            for (String[] header : carrier) {
+                if (header[0].equalsIgnoreCase(key)) {
+                    return header[1];
+                }
+            }
+            return null;
+        }
+    };
+
+    @Param({"sdk", "scanning"})
+    public String composite;
+
+    @Param({"tracecontext", "b3multi", "none"})
+    public String incoming;
+
+    @Param({"2", "4"})
+    public int formats;
+
+    private TextMapPropagator propagator;
+    private final List<String[]> headers = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<TextMapPropagator> propagators = new ArrayList<>(List.of(
+                W3CTraceContextPropagator.getInstance(), FastB3Propagator.injectingMultiHeaders()));
+        if (formats == 4) {
+            propagators.add(JaegerPropagator.getInstance());
+            propagators.add(OtTracePropagator.getInstance());
+        }
+        if ("sdk".equals(composite)) {
+            propagator = TextMapPropagator.composite(propagators);
+        } else {
+            CompositePropagator.Builder builder = CompositePropagator.builder()
+                    .addInjector(W3CTraceContextPropagator.getInstance());
+            propagators.forEach(builder::addExtractor);
+            propagator = builder.build();
+        }
+        headers.add(new String[] {"host", "localhost:8080"});
+        headers.add(new String[] {"user-agent", "Mozilla/5.0 (X11; Linux x86_64; rv:121.0) Gecko/20100101"});
+        headers.add(new String[] {"accept", "application/json"});
+        headers.add(new String[] {"accept-language", "en-US,en;q=0.5"});
+        headers.add(new String[] {"accept-encoding", "gzip, deflate, br"});
+        headers.add(new String[] {"connection", "keep-alive"});
+        headers.add(new String[] {"cookie", "SESSION=5f1c0e4e-3b7a-4f1e-9d0a-6c1b2e3f4a5b"});
+        headers.add(new String[] {"x-request-id", "0c6d1b3e-7f2a-4b8c-9e1d-2a3b4c5d6e7f"});
+        headers.add(new String[] {"x-forwarded-for", "10.0.0.12"});
+        if ("tracecontext".equals(incoming)) {
+            headers.add(new String[] {"traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"});
+            headers.add(new String[] {"tracestate", "vendor=opaque"});
+        } else if ("b3multi".equals(incoming)) {
+            headers.add(new String[] {"X-B3-TraceId", "0af7651916cd43dd8448eb211c80319c"});
+            headers.add(new String[] {"X-B3-SpanId", "b7ad6b7169203331"});
+            headers.add(new String[] {"X-B3-Sampled", "1"});
+        }
+    }
+
+    @Benchmark
+    public Context extract() {
+        return propagator.extract(Context.root(), headers, GETTER);
+    }
+}
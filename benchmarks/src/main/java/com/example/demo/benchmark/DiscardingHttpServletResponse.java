@@ -0,0 +1,43 @@
+package com.example.demo.benchmark;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * A servlet response that throws away what is written to it, for benchmarking handlers that write their own
+ * response. Header and status setters do nothing; getters other than {@code getOutputStream} return null, so
+ * it only suits code that does not read the response back.
+ */
+final class DiscardingHttpServletResponse {
+
+    private static final ServletOutputStream OUTPUT = new ServletOutputStream() {
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private DiscardingHttpServletResponse() {
+    }
+
+    static HttpServletResponse create() {
+        return (HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(),
+                new Class<?>[] {HttpServletResponse.class},
+                (proxy, method, args) -> "getOutputStream".equals(method.getName()) ? OUTPUT : null);
+    }
+}
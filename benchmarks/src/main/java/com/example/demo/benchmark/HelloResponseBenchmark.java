@@ -0,0 +1,69 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.controller.HelloResponseWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code /hello} response body: building a map and serializing it with Jackson, as Spring MVC does for a
+ * handler returning {@code Map<String, Object>}, versus {@link HelloResponseWriter}. Both write to an output
+ * stream that discards the bytes, standing in for the servlet output buffer. {@code name} is plain ASCII or
+ * needs escaping.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HelloResponseBenchmark {
+
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    @Param({"jackson", "streaming"})
+    public String serializer;
+
+    @Param({"World", "\"Bob\"\t"})
+    public String name;
+
+    // Spring's message converter leaves the servlet output stream open, and so must this one
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final HelloResponseWriter writer = new HelloResponseWriter();
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() {
+        buffer = new byte[HelloResponseWriter.maxLength(name)];
+    }
+
+    @Benchmark
+    public void hello() throws IOException {
+        if ("jackson".equals(serializer)) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Hello, " + name + "!");
+            response.put("timestamp", LocalDateTime.now().toString());
+            response.put("service", "spring-boot-otel-demo");
+            objectMapper.writeValue(DISCARD, response);
+        } else {
+            DISCARD.write(buffer, 0, writer.encode(name, buffer));
+        }
+    }
+}
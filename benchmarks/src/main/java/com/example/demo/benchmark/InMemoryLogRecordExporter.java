@@ -0,0 +1,37 @@
+package com.example.demo.benchmark;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * No-op stand-in for {@code OtlpGrpcLogRecordExporter}: counts exported records and returns immediately,
+ * so benchmarks measure the in-process pipeline rather than the network.
+ */
+public class InMemoryLogRecordExporter implements LogRecordExporter {
+
+    private final LongAdder exportedRecords = new LongAdder();
+
+    @Override
+    public CompletableResultCode export(Collection<LogRecordData> logs) {
+        exportedRecords.add(logs.size());
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public long getExportedRecords() {
+        return exportedRecords.sum();
+    }
+}
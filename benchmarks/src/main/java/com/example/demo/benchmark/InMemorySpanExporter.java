@@ -0,0 +1,36 @@
+package com.example.demo.benchmark;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * No-op stand-in for {@code OtlpGrpcSpanExporter}: counts exported spans and returns immediately.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final LongAdder exportedSpans = new LongAdder();
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        exportedSpans.add(spans.size());
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    public long getExportedSpans() {
+        return exportedSpans.sum();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.example.demo.controller.HelloController;
+import com.example.demo.logging.CallSiteOpenTelemetryAppender;
+import com.example.demo.logging.MdcAttributesLogRecordProcessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.instrumentation.logback.appender.v1_0.OpenTelemetryAppender;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.SdkLoggerProviderBuilder;
+import io.opentelemetry.sdk.logs.export.BatchLogRecordProcessor;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a log statement on the SLF4J → Logback → {@code OpenTelemetryAppender} → {@code BatchLogRecordProcessor}
+ * path built in {@code DemoApplication.openTelemetry()}, with the OTLP exporter replaced by
+ * {@link InMemoryLogRecordExporter}. The parameters mirror the {@code OTEL} appender flags in logback-spring.xml;
+ * {@code codeLocation} picks between the stock appender, which takes code attributes from a stack trace per event,
+ * and {@link CallSiteOpenTelemetryAppender}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogForwardingBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(HelloController.class);
+
+    @Param({"true", "false"})
+    public boolean captureExperimentalAttributes;
+
+    // "allowlist": nothing captured by the appender, four keys copied by MdcAttributesLogRecordProcessor
+    @Param({"*", "", "allowlist"})
+    public String captureMdcAttributes;
+
+    @Param({"true", "false"})
+    public boolean captureKeyValuePairAttributes;
+
+    @Param({"true", "false"})
+    public boolean captureCodeAttributes;
+
+    @Param({"true", "false"})
+    public boolean captureMarkerAttribute;
+
+    @Param({"stack-trace", "call-site-cache"})
+    public String codeLocation;
+
+    private LoggerContext loggerContext;
+    private OpenTelemetrySdk openTelemetrySdk;
+    private HelloController helloController;
+    private final HttpServletResponse response = DiscardingHttpServletResponse.create();
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() {
+        // Same processor as DemoApplication, but exporting to memory instead of the OTLP endpoint
+        boolean allowlist = "allowlist".equals(captureMdcAttributes);
+        SdkLoggerProviderBuilder sdkLoggerProviderBuilder = SdkLoggerProvider.builder();
+        if (allowlist) {
+            sdkLoggerProviderBuilder.addLogRecordProcessor(new MdcAttributesLogRecordProcessor(
+                    List.of("request_id", "tenant_id", "user_id", "session_id")));
+        }
+        SdkLoggerProvider sdkLoggerProvider = sdkLoggerProviderBuilder
+                .addLogRecordProcessor(BatchLogRecordProcessor.builder(new InMemoryLogRecordExporter()).build())
+                .build();
+        openTelemetrySdk = OpenTelemetrySdk.builder()
+                .setLoggerProvider(sdkLoggerProvider)
+                .build();
+
+        // Only the OTEL appender is attached, so console output does not skew the numbers
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.reset();
+
+        OpenTelemetryAppender appender = "call-site-cache".equals(codeLocation)
+                ? new CallSiteOpenTelemetryAppender()
+                : new OpenTelemetryAppender();
+        appender.setContext(loggerContext);
+        appender.setName("OTEL");
+        appender.setCaptureExperimentalAttributes(captureExperimentalAttributes);
+        appender.setCaptureMdcAttributes(allowlist ? "" : captureMdcAttributes);
+        appender.setCaptureKeyValuePairAttributes(captureKeyValuePairAttributes);
+        appender.setCaptureCodeAttributes(captureCodeAttributes);
+        appender.setCaptureMarkerAttribute(captureMarkerAttribute);
+        appender.start();
+        appender.setOpenTelemetry(openTelemetrySdk);
+
+        // Levels as configured in logback-spring.xml
+        ch.qos.logback.classic.Logger rootLogger = loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(appender);
+        loggerContext.getLogger("com.example.demo").setLevel(Level.DEBUG);
+
+        helloController = new HelloController(new ObjectMapper());
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        openTelemetrySdk.close();
+        loggerContext.reset();
+    }
+
+    @State(Scope.Thread)
+    public static class RequestContext {
+
+        public String name = "World";
+
+        // Request-scoped MDC of a typical service: the trace ids referenced by the CONSOLE pattern plus
+        // 16 more entries, of which only four are wanted on exported logs
+        @Setup(org.openjdk.jmh.annotations.Level.Trial)
+        public void setUp() {
+            MDC.put("trace_id", "4bf92f3577b34da6a3ce929d0e0e4736");
+            MDC.put("span_id", "00f067aa0ba902b7");
+            MDC.put("request_id", "2c1f8a0e-5d4b-4f7e-9a63-1b2d3e4f5a6b");
+            MDC.put("tenant_id", "acme");
+            MDC.put("user_id", "u-102938");
+            MDC.put("session_id", "s-7f3e2a");
+            for (int i = 0; i < 12; i++) {
+                MDC.put("context_" + i, "value-" + i);
+            }
+        }
+
+        @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+        public void tearDown() {
+            MDC.clear();
+        }
+    }
+
+    @Benchmark
+    public void singleInfoStatement(RequestContext requestContext) {
+        logger.info("Received request to /hello endpoint with name: {}", requestContext.name);
+    }
+
+    @Benchmark
+    public void helloEndpoint(RequestContext requestContext) throws IOException {
+        helloController.hello(requestContext.name, response);
+    }
+}
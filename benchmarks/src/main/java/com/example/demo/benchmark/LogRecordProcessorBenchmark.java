@@ -0,0 +1,76 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.telemetry.RingBufferLogRecordProcessor;
+import com.example.demo.telemetry.WaitStrategy;
+import io.opentelemetry.api.logs.Logger;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.SdkLoggerProvider;
+import io.opentelemetry.sdk.logs.export.BatchLogRecordProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended emit cost of the stock {@code BatchLogRecordProcessor} versus {@link RingBufferLogRecordProcessor},
+ * bypassing Logback so only the SDK logger and the processor are measured. Run with {@code -t} to change
+ * the number of emitting threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class LogRecordProcessorBenchmark {
+
+    @Param({"batch", "ring-buffer"})
+    public String processor;
+
+    @Param({"sleeping"})
+    public String waitStrategy;
+
+    private SdkLoggerProvider sdkLoggerProvider;
+    private Logger logger;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryLogRecordExporter exporter = new InMemoryLogRecordExporter();
+        LogRecordProcessor logRecordProcessor = "batch".equals(processor)
+                ? BatchLogRecordProcessor.builder(exporter).build()
+                : RingBufferLogRecordProcessor.builder(exporter)
+                        .setWaitStrategy(WaitStrategy.of(waitStrategy))
+                        .build();
+        sdkLoggerProvider = SdkLoggerProvider.builder()
+                .addLogRecordProcessor(logRecordProcessor)
+                .build();
+        logger = sdkLoggerProvider.get("com.example.demo.controller.HelloController");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sdkLoggerProvider.close();
+    }
+
+    @Benchmark
+    public void emit() {
+        logger.logRecordBuilder()
+                .setSeverity(Severity.INFO)
+                .setBody("Successfully processed /hello request")
+                .emit();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.example.demo.logging.CachedDateConverter;
+import com.example.demo.telemetry.CachedClock;
+import io.opentelemetry.sdk.common.Clock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timestamps of a log event: the date of a console line, {@code %d{yyyy-MM-dd HH:mm:ss.SSS}} versus
+ * {@link CachedDateConverter}, and the observed timestamp the OTel SDK reads per log record, from its default
+ * clock versus {@link CachedClock}. Every event is a millisecond after the previous one, so neither date
+ * converter can return the text of the last event.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LogTimestampBenchmark {
+
+    @Param({"logback", "cached"})
+    public String clock;
+
+    private PatternLayout layout;
+    private Clock otelClock;
+    private LoggingEvent event;
+    private long timestamp;
+
+    @Setup
+    public void setUp() {
+        LoggerContext loggerContext = new LoggerContext();
+        layout = new PatternLayout();
+        layout.setContext(loggerContext);
+        if ("cached".equals(clock)) {
+            layout.getInstanceConverterMap().put("cachedDate", CachedDateConverter.class.getName());
+            layout.setPattern("%cachedDate");
+            otelClock = CachedClock.shared().otelClock();
+        } else {
+            layout.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS}");
+            otelClock = Clock.getDefault();
+        }
+        layout.start();
+        event = new LoggingEvent(LogTimestampBenchmark.class.getName(),
+                loggerContext.getLogger(LogTimestampBenchmark.class), Level.INFO, "message", null, null);
+        timestamp = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    public String consoleTimestamp() {
+        event.setTimeStamp(++timestamp);
+        return layout.doLayout(event);
+    }
+
+    @Benchmark
+    public long observedTimestamp() {
+        return otelClock.now();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.telemetry.StripedSpanProcessor;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contended start+end cost of a span with the stock {@code BatchSpanProcessor} versus {@link StripedSpanProcessor}.
+ * Run with {@code -t} to change the number of request threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class SpanProcessorBenchmark {
+
+    @Param({"batch", "striped"})
+    public String processor;
+
+    private SdkTracerProvider sdkTracerProvider;
+    private Tracer tracer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        SpanProcessor spanProcessor = "batch".equals(processor)
+                ? BatchSpanProcessor.builder(exporter).build()
+                : StripedSpanProcessor.builder(exporter).build();
+        sdkTracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(spanProcessor)
+                .build();
+        tracer = sdkTracerProvider.get("com.example.demo");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sdkTracerProvider.close();
+    }
+
+    @Benchmark
+    public void startAndEndSpan() {
+        tracer.spanBuilder("GET /hello").startSpan().end();
+    }
+}
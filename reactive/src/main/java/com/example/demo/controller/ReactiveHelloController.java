@@ -0,0 +1,98 @@
+package com.example.demo.controller;
+
+import com.example.demo.telemetry.CachedClock;
+import com.example.demo.telemetry.reactive.ReactorTelemetry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// The endpoints of HelloController on WebFlux; logging runs inside ReactorTelemetry.withLogContext so that
+// log lines keep their trace and span ids whichever thread they run on
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveHelloController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveHelloController.class);
+    private static final long MAX_SLOW_DELAY_MILLIS = 10_000;
+
+    @GetMapping("/hello")
+    public Mono<Map<String, Object>> hello(@RequestParam(value = "name", defaultValue = "World") String name) {
+        return ReactorTelemetry.withLogContext(() -> {
+            logger.info("Received request to /hello endpoint with name: {}", name);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Hello, " + name + "!");
+            response.put("timestamp", CachedClock.shared().isoTimestamp());
+            response.put("service", "spring-boot-otel-demo");
+            
+            logger.debug("Preparing response for name: {}", name);
+            logger.info("Successfully processed /hello request");
+            
+            return response;
+        });
+    }
+
+    @GetMapping("/")
+    public Mono<Map<String, String>> root() {
+        return ReactorTelemetry.withLogContext(() -> {
+            logger.info("Received request to root endpoint");
+            
+            Map<String, String> response = new HashMap<>();
+            response.put("status", "running");
+            response.put("message", "Spring Boot OpenTelemetry Demo Application");
+            response.put("endpoints", "/hello, /slow, /health");
+            
+            logger.info("Root endpoint accessed successfully");
+            
+            return response;
+        });
+    }
+
+    @GetMapping("/slow")
+    public Mono<Map<String, Object>> slow(@RequestParam(value = "delay", defaultValue = "100") long delay) {
+        // Stands in for a non-blocking downstream call; the response is built on a timer thread
+        long delayMillis = Math.max(0, Math.min(delay, MAX_SLOW_DELAY_MILLIS));
+        return ReactorTelemetry.withLogContext(() -> {
+            logger.info("Received request to /slow endpoint, waiting {} ms", delayMillis);
+            return delayMillis;
+        }).delayElement(Duration.ofMillis(delayMillis)).flatMap(waited -> ReactorTelemetry.withLogContext(() -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("delay", waited);
+            response.put("thread", Thread.currentThread().toString());
+            
+            logger.info("Successfully processed /slow request");
+            
+            return response;
+        }));
+    }
+
+    @GetMapping("/test-logs")
+    public Mono<Map<String, String>> testLogs() {
+        return ReactorTelemetry.withLogContext(() -> {
+            logger.info("Testing different log levels...");
+            
+            logger.trace("This is a TRACE level log");
+            logger.debug("This is a DEBUG level log");
+            logger.info("This is an INFO level log");
+            logger.warn("This is a WARN level log");
+            logger.error("This is an ERROR level log");
+            
+            logger.info("Log level test completed");
+            
+            Map<String, String> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("message", "Generated logs at all levels (TRACE, DEBUG, INFO, WARN, ERROR)");
+            response.put("note", "Check your OTLP endpoint for the exported logs");
+            
+            return response;
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.telemetry.reactive;
+
+import com.example.demo.telemetry.web.HttpServerMetrics;
+import com.example.demo.telemetry.web.HttpServerTracing;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.function.Consumer;
+
+/**
+ * The WebFlux counterpart of the servlet stack's {@code HttpServerTracingFilter} and
+ * {@code HttpServerMetricsFilter}, recording the same server spans and request metrics through the same
+ * {@link HttpServerTracing} and {@link HttpServerMetrics}. The span's context goes into the Reactor context
+ * for {@link ReactorTelemetry}. The span is named after the matched route when the response completes, since
+ * WebFlux has no hook between route matching and the handler.
+ */
+public class HttpServerTelemetryWebFilter implements WebFilter, Ordered {
+
+    private static final TextMapGetter<HttpHeaders> GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(HttpHeaders headers) {
+            return headers.keySet();
+        }
+
+        @Override
+        public String get(HttpHeaders headers, String key) {
+            return headers == null ? null : headers.getFirst(key);
+        }
+    };
+
+    private final HttpServerTracing tracing;
+    private final HttpServerMetrics metrics;
+
+    public HttpServerTelemetryWebFilter(HttpServerTracing tracing, HttpServerMetrics metrics) {
+        this.tracing = tracing;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public int getOrder() {
+        // First in the chain, so the server span covers every other filter
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String method = request.getMethod().name();
+        String path = request.getPath().value();
+        String scheme = request.getURI().getScheme();
+        RequestSpan requestSpan = new RequestSpan(exchange, method, path, scheme,
+                tracing.startSpan(request.getHeaders(), GETTER, method, path, scheme), System.nanoTime());
+        Context context = Context.root().with(requestSpan.span);
+        return chain.filter(exchange)
+                .doOnError(error -> requestSpan.error = error)
+                .doFinally(requestSpan)
+                .contextWrite(reactorContext -> reactorContext.put(ReactorTelemetry.CONTEXT_KEY, context));
+    }
+
+    /** Ends the span and records the request once the exchange completes, fails or is cancelled. */
+    private final class RequestSpan implements Consumer<SignalType> {
+
+        final ServerWebExchange exchange;
+        final String method;
+        final String path;
+        final String scheme;
+        final Span span;
+        final long startNanos;
+        Throwable error;
+
+        RequestSpan(ServerWebExchange exchange, String method, String path, String scheme, Span span,
+                    long startNanos) {
+            this.exchange = exchange;
+            this.method = method;
+            this.path = path;
+            this.scheme = scheme;
+            this.span = span;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void accept(SignalType signal) {
+            Throwable failure = error;
+            int status;
+            if (failure instanceof ResponseStatusException) {
+                // Turned into its status by the exception handlers, which run after the filters
+                status = ((ResponseStatusException) failure).getStatusCode().value();
+                if (status < 500) {
+                    failure = null;
+                }
+            } else {
+                HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+                status = statusCode == null ? 200 : statusCode.value();
+                if (failure != null && status < 400) {
+                    status = 500;
+                }
+            }
+            String route = route(exchange);
+            if (route != null) {
+                tracing.routeMatched(span, method, path, scheme, route);
+                metrics.record(method, route, status, System.nanoTime() - startNanos);
+            }
+            tracing.endSpan(span, method, route, status, failure);
+        }
+    }
+
+    private static String route(ServerWebExchange exchange) {
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof PathPattern ? ((PathPattern) pattern).getPatternString() : null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.telemetry.reactive;
+
+import com.example.demo.telemetry.web.HttpServerMetrics;
+import com.example.demo.telemetry.web.HttpServerTracing;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Request spans and metrics for the WebFlux stack; the servlet stack has its own. */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTelemetryConfiguration {
+
+    @Bean
+    public HttpServerTelemetryWebFilter httpServerTelemetryWebFilter(HttpServerTracing tracing,
+                                                                     HttpServerMetrics metrics) {
+        return new HttpServerTelemetryWebFilter(tracing, metrics);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.telemetry.reactive;
+
+import com.example.demo.telemetry.web.HttpServerTracing;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import org.slf4j.MDC;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.util.function.Supplier;
+
+/**
+ * Carries the request's OTel {@link Context} in the Reactor context, where {@link HttpServerTelemetryWebFilter}
+ * puts it, instead of in thread locals, which do not follow a request across event loop and scheduler threads.
+ * Nothing is restored on every operator: the context is bridged into the MDC and made current, for the
+ * {@code OTEL} appender, only around code that logs, see {@link #withLogContext}.
+ */
+public final class ReactorTelemetry {
+
+    /** Reactor context key of the request's OTel context. */
+    public static final Class<Context> CONTEXT_KEY = Context.class;
+
+    private ReactorTelemetry() {
+    }
+
+    /**
+     * Runs {@code step} on the subscribing thread with the request's context current and its ids in the MDC,
+     * and emits its result, if not null. Meant for the synchronous part of a handler that logs.
+     */
+    public static <T> Mono<T> withLogContext(Supplier<T> step) {
+        return Mono.deferContextual(view -> {
+            try (Scope ignored = logScope(view)) {
+                return Mono.justOrEmpty(step.get());
+            }
+        });
+    }
+
+    /** Makes the request's context current and puts its ids in the MDC until the scope is closed. */
+    public static Scope logScope(ContextView view) {
+        Context context = view.getOrDefault(CONTEXT_KEY, null);
+        if (context == null) {
+            return Scope.noop();
+        }
+        Scope scope = context.makeCurrent();
+        SpanContext spanContext = Span.fromContext(context).getSpanContext();
+        if (!spanContext.isValid()) {
+            return scope;
+        }
+        MDC.put(HttpServerTracing.TRACE_ID_KEY, spanContext.getTraceId());
+        MDC.put(HttpServerTracing.SPAN_ID_KEY, spanContext.getSpanId());
+        return () -> {
+            MDC.remove(HttpServerTracing.TRACE_ID_KEY);
+            MDC.remove(HttpServerTracing.SPAN_ID_KEY);
+            scope.close();
+        };
+    }
+}
@@ -1,17 +1,48 @@
 package com.example.demo;
 
+import com.example.demo.logging.MdcAttributesLogRecordProcessor;
+import com.example.demo.telemetry.CachedClock;
+import com.example.demo.telemetry.ExportSchedule;
+import com.example.demo.telemetry.RingBufferLogRecordProcessor;
+import com.example.demo.telemetry.StripedSpanProcessor;
+import com.example.demo.telemetry.WaitStrategy;
+import com.example.demo.telemetry.exporter.OtlpExporterFactory;
+import com.example.demo.telemetry.metrics.ExportPipelineEndpoint;
+import com.example.demo.telemetry.metrics.ExportPipelineStats;
+import com.example.demo.telemetry.metrics.ExportPipelineTelemetry;
+import com.example.demo.telemetry.metrics.InstrumentedLogRecordExporter;
+import com.example.demo.telemetry.metrics.InstrumentedLogRecordProcessor;
+import com.example.demo.telemetry.metrics.InstrumentedSpanExporter;
+import com.example.demo.telemetry.metrics.InstrumentedSpanProcessor;
+import com.example.demo.telemetry.propagation.CompositePropagator;
+import com.example.demo.telemetry.propagation.FastB3Propagator;
+import com.example.demo.telemetry.sampling.AdaptiveRateSampler;
+import com.example.demo.telemetry.sampling.RecordingSampler;
+import com.example.demo.telemetry.sampling.RouteSampler;
+import com.example.demo.telemetry.sampling.TailSamplingSpanProcessor;
+import com.example.demo.telemetry.web.HttpRouteAttributes;
+import com.example.demo.telemetry.web.HttpServerMetrics;
+import com.example.demo.telemetry.web.HttpServerTracing;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.propagation.ContextPropagators;
-import io.opentelemetry.exporter.otlp.logs.OtlpGrpcLogRecordExporter;
-import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
 import io.opentelemetry.extension.trace.propagation.B3Propagator;
+import io.opentelemetry.instrumentation.logback.appender.v1_0.OpenTelemetryAppender;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
 import io.opentelemetry.sdk.logs.SdkLoggerProvider;
 import io.opentelemetry.sdk.logs.export.BatchLogRecordProcessor;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SpanProcessor;
 import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
 import io.opentelemetry.semconv.ResourceAttributes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,10 +50,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 @SpringBootApplication
 public class DemoApplication {
 
@@ -31,9 +68,120 @@ public class DemoApplication {
     @Value("${otel.exporter.otlp.endpoint:http://localhost:4318}")
     private String otlpEndpoint;
 
+    @Value("${otel.exporter.otlp.protocol:http/protobuf}")
+    private String otlpProtocol;
+
+    @Value("${otel.exporter.otlp.http.max-idle-connections:1}")
+    private int otlpHttpMaxIdleConnections;
+
+    @Value("${otel.exporter.otlp.grpc.max-concurrent-streams:8}")
+    private int otlpGrpcMaxConcurrentStreams;
+
+    @Value("${otel.exporter.otlp.keep-alive:5m}")
+    private Duration otlpKeepAlive;
+
+    @Value("${otel.exporter.otlp.timeout:10s}")
+    private Duration otlpTimeout;
+
+    @Value("${otel.exporter.spool.enabled:false}")
+    private boolean spoolEnabled;
+
+    @Value("${otel.exporter.spool.directory:${java.io.tmpdir}/otel-spool}")
+    private String spoolDirectory;
+
+    @Value("${otel.exporter.spool.segment-size:8MB}")
+    private DataSize spoolSegmentSize;
+
+    @Value("${otel.exporter.spool.max-disk-usage:256MB}")
+    private DataSize spoolMaxDiskUsage;
+
     @Value("${otel.service.name:spring-boot-otel-demo}")
     private String serviceName;
 
+    @Value("${otel.metric.export.interval:60s}")
+    private Duration metricExportInterval;
+
+    @Value("${otel.batch.schedule:fixed}")
+    private String batchSchedule;
+
+    @Value("${otel.batch.adaptive.min-batch-size:32}")
+    private int adaptiveMinBatchSize;
+
+    @Value("${otel.batch.adaptive.max-batch-size:2048}")
+    private int adaptiveMaxBatchSize;
+
+    @Value("${otel.batch.adaptive.min-delay:100ms}")
+    private Duration adaptiveMinDelay;
+
+    @Value("${otel.batch.adaptive.max-delay:5s}")
+    private Duration adaptiveMaxDelay;
+
+    @Value("${otel.logs.processor:batch}")
+    private String logProcessor;
+
+    @Value("${otel.logs.ring-buffer.capacity:8192}")
+    private int logRingBufferCapacity;
+
+    @Value("${otel.logs.ring-buffer.wait-strategy:sleeping}")
+    private String logRingBufferWaitStrategy;
+
+    @Value("${otel.logs.mdc-attributes:*}")
+    private List<String> logMdcAttributes;
+
+    @Value("${otel.traces.sampler.type:parentbased_always_on}")
+    private String samplerType;
+
+    @Value("${otel.traces.sampler.ratio:1.0}")
+    private double samplerRatio;
+
+    @Value("${otel.traces.sampler.routes:}")
+    private List<String> samplerRoutes;
+
+    @Value("${otel.traces.sampler.rate-limit.spans-per-second:100}")
+    private double samplerSpansPerSecond;
+
+    @Value("${otel.traces.sampler.rate-limit.routes:}")
+    private List<String> samplerRateLimitRoutes;
+
+    @Value("${otel.traces.tail-sampling.enabled:false}")
+    private boolean tailSamplingEnabled;
+
+    @Value("${otel.traces.tail-sampling.latency-threshold:500ms}")
+    private Duration tailSamplingLatencyThreshold;
+
+    @Value("${otel.traces.tail-sampling.attributes:}")
+    private List<String> tailSamplingAttributes;
+
+    @Value("${otel.traces.tail-sampling.decision-wait:30s}")
+    private Duration tailSamplingDecisionWait;
+
+    @Value("${otel.traces.tail-sampling.max-buffered-spans:100000}")
+    private int tailSamplingMaxBufferedSpans;
+
+    @Value("${otel.traces.processor:batch}")
+    private String spanProcessor;
+
+    @Value("${otel.traces.striped.stripes:0}")
+    private int spanStripes;
+
+    @Value("${otel.traces.striped.stripe-capacity:2048}")
+    private int spanStripeCapacity;
+
+    @Value("${otel.propagators.b3:fast}")
+    private String b3Propagator;
+
+    @Value("${otel.propagators.extract:tracecontext,b3}")
+    private List<String> extractPropagators;
+
+    @Value("${otel.propagators.inject:tracecontext,b3multi}")
+    private List<String> injectPropagators;
+
+    @Value("${otel.propagators.downstream:}")
+    private List<String> downstreamPropagators;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     public static void main(String[] args) {
         logger.info("Starting Spring Boot OpenTelemetry Demo Application...");
         SpringApplication.run(DemoApplication.class, args);
@@ -42,12 +190,27 @@ public class DemoApplication {
 
     @PostConstruct
     public void init() {
-        logger.info("Initializing OpenTelemetry with OTLP endpoint: {}", otlpEndpoint);
+        logger.info("Initializing OpenTelemetry with OTLP endpoint: {} ({})", otlpEndpoint, otlpProtocol);
         logger.info("Service name: {}", serviceName);
+        if (virtualThreads) {
+            int javaVersion = Runtime.version().feature();
+            if (javaVersion < 21) {
+                logger.warn("spring.threads.virtual.enabled has no effect on Java {}; serving requests on platform "
+                        + "threads", javaVersion);
+            } else {
+                logger.info("Serving requests on virtual threads");
+            }
+        }
     }
 
     private OpenTelemetrySdk openTelemetrySdk;
 
+    private OtlpExporterFactory otlpExporterFactory;
+
+    private ExportPipelineTelemetry exportPipelineTelemetry;
+
+    private CompositePropagator compositePropagator;
+
     @Bean
     public OpenTelemetry openTelemetry() {
         logger.info("Configuring OpenTelemetry SDK for log and trace forwarding...");
@@ -60,57 +223,296 @@ public class DemoApplication {
                         .put(ResourceAttributes.DEPLOYMENT_ENVIRONMENT, "development")
                         .build()));
 
-        // Configure OTLP Log Exporter
-        OtlpGrpcLogRecordExporter logExporter = OtlpGrpcLogRecordExporter.builder()
-                .setEndpoint(otlpEndpoint)
+        // Exporters for the configured protocol; all signals share one transport (HTTP client or gRPC channel)
+        otlpExporterFactory = new OtlpExporterFactory(otlpEndpoint, otlpProtocol,
+                new OtlpExporterFactory.TransportSettings(otlpHttpMaxIdleConnections, otlpGrpcMaxConcurrentStreams,
+                        otlpKeepAlive, otlpTimeout),
+                new OtlpExporterFactory.SpoolSettings(spoolEnabled, Path.of(spoolDirectory),
+                        Math.toIntExact(spoolSegmentSize.toBytes()), spoolMaxDiskUsage.toBytes()));
+        if (spoolEnabled) {
+            logger.info("Spooling OTLP exports to {} (quota {})", spoolDirectory, spoolMaxDiskUsage);
+        }
+
+        // Create SdkMeterProvider exporting periodically over the same transport
+        SdkMeterProvider sdkMeterProvider = SdkMeterProvider.builder()
+                .setResource(resource)
+                .registerMetricReader(PeriodicMetricReader.builder(otlpExporterFactory.createMetricExporter())
+                        .setInterval(metricExportInterval)
+                        .build())
                 .build();
 
-        // Create SdkLoggerProvider with batch processor
+        // Self-telemetry of the log and span pipelines, published as metrics and on /actuator/telemetry
+        exportPipelineTelemetry = new ExportPipelineTelemetry(sdkMeterProvider.get("com.example.demo.telemetry"),
+                otlpProtocol, otlpExporterFactory.getTransport());
+
+        // Configure OTLP Log Exporter
+        ExportPipelineStats logStats = exportPipelineTelemetry.createPipeline("logs", logProcessor);
+        LogRecordExporter logExporter = new InstrumentedLogRecordExporter(
+                otlpExporterFactory.createLogRecordExporter(), logStats);
+
+        // Create SdkLoggerProvider with the configured processor (batch or ring-buffer)
+        // MDC attributes are added first, so the exporting processor sees them in its snapshot
+        // Observed timestamps come from the shared cached clock; the timestamp itself is the Logback event's
         SdkLoggerProvider sdkLoggerProvider = SdkLoggerProvider.builder()
                 .setResource(resource)
-                .addLogRecordProcessor(BatchLogRecordProcessor.builder(logExporter).build())
+                .setClock(CachedClock.shared().otelClock())
+                .addLogRecordProcessor(new MdcAttributesLogRecordProcessor(logMdcAttributes))
+                .addLogRecordProcessor(new InstrumentedLogRecordProcessor(
+                        createLogRecordProcessor(logExporter, logStats, sdkMeterProvider), logStats))
                 .build();
 
         // Configure OTLP Span Exporter for traces
-        OtlpGrpcSpanExporter spanExporter = OtlpGrpcSpanExporter.builder()
-                .setEndpoint(otlpEndpoint)
-                .build();
+        ExportPipelineStats spanStats = exportPipelineTelemetry.createPipeline("traces", spanProcessor);
+        SpanExporter spanExporter = new InstrumentedSpanExporter(otlpExporterFactory.createSpanExporter(), spanStats);
 
-        // Create SdkTracerProvider with batch processor
+        // Create SdkTracerProvider with the configured sampler and processor (batch or striped)
+        Sampler sampler = createSampler();
+        SpanProcessor exportingProcessor = new InstrumentedSpanProcessor(
+                createSpanProcessor(spanExporter, spanStats, sdkMeterProvider), spanStats);
+        if (tailSamplingEnabled) {
+            // Spans the head sampler drops are still recorded, and their traces kept if the tail sampler wants them
+            sampler = new RecordingSampler(sampler);
+            exportingProcessor = createTailSamplingProcessor(exportingProcessor);
+        }
+        logger.info("Trace sampler: {}", sampler.getDescription());
         SdkTracerProvider sdkTracerProvider = SdkTracerProvider.builder()
                 .setResource(resource)
-                .addSpanProcessor(BatchSpanProcessor.builder(spanExporter).build())
+                .setSampler(sampler)
+                .addSpanProcessor(exportingProcessor)
                 .build();
 
-        // Configure B3 propagator for distributed tracing compatibility
+        // Extract W3C trace context or B3, whichever the caller sent, and inject the formats each downstream reads
         // B3 is compatible with Temporal, Zipkin, Jaeger, and other distributed systems
-        ContextPropagators contextPropagators = ContextPropagators.create(
-                B3Propagator.injectingMultiHeaders()
-        );
+        compositePropagator = createCompositePropagator();
+        ContextPropagators contextPropagators = ContextPropagators.create(compositePropagator);
 
-        // Build OpenTelemetry SDK with logger provider, tracer provider, and propagators
+        // Build OpenTelemetry SDK with logger, tracer and meter providers, and propagators
         // Register globally so the Logback appender and other components can access it
         openTelemetrySdk = OpenTelemetrySdk.builder()
                 .setLoggerProvider(sdkLoggerProvider)
                 .setTracerProvider(sdkTracerProvider)
+                .setMeterProvider(sdkMeterProvider)
                 .setPropagators(contextPropagators)
                 .buildAndRegisterGlobal();
 
+        // The Logback appender only forwards once it is bound to an SDK instance
+        OpenTelemetryAppender.install(openTelemetrySdk);
+
         logger.info("OpenTelemetry SDK configured successfully!");
         logger.info("Log forwarding enabled to OTLP endpoint");
         logger.info("Trace forwarding enabled to OTLP endpoint");
-        logger.info("B3 context propagation enabled for distributed tracing");
+        logger.info("Context propagation: extracting {}, injecting {} (B3: {})", extractPropagators, injectPropagators,
+                b3Propagator);
         logger.debug("OTLP endpoint: {}", otlpEndpoint);
         logger.debug("Service name: {}", serviceName);
 
         return openTelemetrySdk;
     }
 
+    // The stock processors publish their queue metrics through the meter provider, ours through the stats
+    private LogRecordProcessor createLogRecordProcessor(LogRecordExporter logExporter, ExportPipelineStats stats,
+                                                        SdkMeterProvider meterProvider) {
+        switch (logProcessor) {
+            case "batch":
+                warnIfAdaptiveUnsupported("otel.logs.processor=ring-buffer");
+                return BatchLogRecordProcessor.builder(logExporter)
+                        .setMeterProvider(meterProvider)
+                        .build();
+            case "ring-buffer":
+                logger.info("Using ring buffer log record processor (capacity={}, wait strategy={}, schedule={})",
+                        logRingBufferCapacity, logRingBufferWaitStrategy, batchSchedule);
+                RingBufferLogRecordProcessor.Builder builder = RingBufferLogRecordProcessor.builder(logExporter)
+                        .setCapacity(logRingBufferCapacity)
+                        .setWaitStrategy(WaitStrategy.of(logRingBufferWaitStrategy));
+                ExportSchedule schedule = createExportSchedule();
+                if (schedule != null) {
+                    builder.setExportSchedule(schedule);
+                }
+                RingBufferLogRecordProcessor processor = builder.build();
+                stats.setQueue(ExportPipelineStats.QueueProbe.of(processor::getQueueSize, processor::getCapacity,
+                        processor::getDroppedLogRecords));
+                return processor;
+            default:
+                throw new IllegalArgumentException("Unknown otel.logs.processor: " + logProcessor);
+        }
+    }
+
+    private SpanProcessor createSpanProcessor(SpanExporter spanExporter, ExportPipelineStats stats,
+                                              SdkMeterProvider meterProvider) {
+        switch (spanProcessor) {
+            case "batch":
+                warnIfAdaptiveUnsupported("otel.traces.processor=striped");
+                return BatchSpanProcessor.builder(spanExporter)
+                        .setMeterProvider(meterProvider)
+                        .build();
+            case "striped":
+                int stripes = spanStripes > 0 ? spanStripes : Runtime.getRuntime().availableProcessors();
+                logger.info("Using striped span processor (stripes={}, stripe capacity={}, schedule={})",
+                        stripes, spanStripeCapacity, batchSchedule);
+                StripedSpanProcessor.Builder builder = StripedSpanProcessor.builder(spanExporter)
+                        .setStripes(stripes)
+                        .setStripeCapacity(spanStripeCapacity);
+                ExportSchedule schedule = createExportSchedule();
+                if (schedule != null) {
+                    builder.setExportSchedule(schedule);
+                }
+                StripedSpanProcessor processor = builder.build();
+                stats.setQueue(ExportPipelineStats.QueueProbe.of(processor::getQueueSize, processor::getCapacity,
+                        processor::getDroppedSpans));
+                return processor;
+            default:
+                throw new IllegalArgumentException("Unknown otel.traces.processor: " + spanProcessor);
+        }
+    }
+
+    private CompositePropagator createCompositePropagator() {
+        CompositePropagator.Builder builder = CompositePropagator.builder();
+        extractPropagators.forEach(name -> builder.addExtractor(createPropagator(name)));
+        injectPropagators.forEach(name -> builder.addInjector(createPropagator(name)));
+        // downstream=format+format, e.g. legacy-billing=b3multi
+        for (String rule : downstreamPropagators) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            int separator = rule.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected downstream=format+format, got: " + rule);
+            }
+            List<TextMapPropagator> injectors = new ArrayList<>();
+            for (String name : rule.substring(separator + 1).split("\\+")) {
+                injectors.add(createPropagator(name.trim()));
+            }
+            builder.setDownstreamInjectors(rule.substring(0, separator).trim(), injectors);
+        }
+        return builder.build();
+    }
+
+    // Names as in OTEL_PROPAGATORS; b3 and b3multi extract both B3 formats and differ in what they inject
+    private TextMapPropagator createPropagator(String name) {
+        switch (name) {
+            case "tracecontext":
+                return W3CTraceContextPropagator.getInstance();
+            case "b3":
+                return "sdk".equals(b3Propagator)
+                        ? B3Propagator.injectingSingleHeader()
+                        : FastB3Propagator.injectingSingleHeader();
+            case "b3multi":
+                return "sdk".equals(b3Propagator)
+                        ? B3Propagator.injectingMultiHeaders()
+                        : FastB3Propagator.injectingMultiHeaders();
+            default:
+                throw new IllegalArgumentException("Unknown propagator: " + name);
+        }
+    }
+
+    // Head sampling, decided when a span starts; the route ratios only replace the ratio for root spans
+    private Sampler createSampler() {
+        switch (samplerType) {
+            case "always_on":
+                return Sampler.alwaysOn();
+            case "always_off":
+                return Sampler.alwaysOff();
+            case "traceidratio":
+                return rootSampler(Sampler.traceIdRatioBased(samplerRatio));
+            case "parentbased_always_on":
+                return Sampler.parentBased(rootSampler(Sampler.alwaysOn()));
+            case "parentbased_always_off":
+                return Sampler.parentBased(rootSampler(Sampler.alwaysOff()));
+            case "parentbased_traceidratio":
+                return Sampler.parentBased(rootSampler(Sampler.traceIdRatioBased(samplerRatio)));
+            case "rate_limited":
+                return rateLimitedRootSampler();
+            case "parentbased_rate_limited":
+                return Sampler.parentBased(rateLimitedRootSampler());
+            default:
+                throw new IllegalArgumentException("Unknown otel.traces.sampler.type: " + samplerType);
+        }
+    }
+
+    private Sampler rootSampler(Sampler defaultSampler) {
+        return samplerRoutes.isEmpty() ? defaultSampler : RouteSampler.ofRatios(samplerRoutes, defaultSampler);
+    }
+
+    // Spans-per-second budgets in place of ratios: one for each listed endpoint, one shared by everything else
+    private Sampler rateLimitedRootSampler() {
+        Sampler defaultSampler = new AdaptiveRateSampler(samplerSpansPerSecond);
+        return samplerRateLimitRoutes.isEmpty()
+                ? defaultSampler
+                : RouteSampler.ofSpansPerSecond(samplerRateLimitRoutes, defaultSampler);
+    }
+
+    private SpanProcessor createTailSamplingProcessor(SpanProcessor exportingProcessor) {
+        TailSamplingSpanProcessor.Builder builder = TailSamplingSpanProcessor.builder(exportingProcessor)
+                .setLatencyThreshold(tailSamplingLatencyThreshold)
+                .setDecisionWait(tailSamplingDecisionWait)
+                .setMaxBufferedSpans(tailSamplingMaxBufferedSpans)
+                .setStats(exportPipelineTelemetry.createTailSamplingStats());
+        for (String rule : tailSamplingAttributes) {
+            if (!rule.isBlank()) {
+                builder.addAttributeRule(TailSamplingSpanProcessor.AttributeRule.parse(rule));
+            }
+        }
+        TailSamplingSpanProcessor processor = builder.build();
+        logger.info("Tail sampling enabled: {}", processor);
+        return processor;
+    }
+
+    @Bean
+    public ExportPipelineEndpoint exportPipelineEndpoint(OpenTelemetry openTelemetry) {
+        // Depends on the OpenTelemetry bean, which creates the pipelines
+        return new ExportPipelineEndpoint(exportPipelineTelemetry);
+    }
+
+    @Bean
+    public CompositePropagator compositePropagator(OpenTelemetry openTelemetry) {
+        // For outgoing calls: compositePropagator.forDownstream(host) injects the formats that downstream reads
+        return compositePropagator;
+    }
+
+    @Bean
+    public HttpRouteAttributes httpRouteAttributes() {
+        // One cache of per-route attribute sets for the request spans and the request metrics
+        return new HttpRouteAttributes();
+    }
+
+    @Bean
+    public HttpServerTracing httpServerTracing(OpenTelemetry openTelemetry, HttpRouteAttributes routeAttributes) {
+        // Server spans per request, extracted with the configured propagators
+        return new HttpServerTracing(openTelemetry, routeAttributes);
+    }
+
+    @Bean
+    public HttpServerMetrics httpServerMetrics(OpenTelemetry openTelemetry, HttpRouteAttributes routeAttributes) {
+        // Request counts and latency histograms per endpoint, exported with the other metrics
+        return new HttpServerMetrics(openTelemetry.getMeter("com.example.demo.http"), routeAttributes);
+    }
+
+    // A new schedule per processor, since each one learns from its own traffic; null keeps the fixed defaults
+    private ExportSchedule createExportSchedule() {
+        switch (batchSchedule) {
+            case "fixed":
+                return null;
+            case "adaptive":
+                return new ExportSchedule.Adaptive(adaptiveMinBatchSize, adaptiveMaxBatchSize,
+                        adaptiveMinDelay, adaptiveMaxDelay);
+            default:
+                throw new IllegalArgumentException("Unknown otel.batch.schedule: " + batchSchedule);
+        }
+    }
+
+    private void warnIfAdaptiveUnsupported(String alternative) {
+        if ("adaptive".equals(batchSchedule)) {
+            logger.warn("otel.batch.schedule=adaptive has no effect on the stock batch processors; set {}",
+                    alternative);
+        }
+    }
+
     @PreDestroy
     public void cleanup() {
         if (openTelemetrySdk != null) {
             logger.info("Shutting down OpenTelemetry SDK...");
             openTelemetrySdk.close();
+            otlpExporterFactory.shutdown();
             logger.info("OpenTelemetry SDK shutdown complete");
         }
     }
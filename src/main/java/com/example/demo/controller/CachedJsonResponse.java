@@ -0,0 +1,107 @@
+package com.example.demo.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+
+/**
+ * A JSON response serialized once, for endpoints whose response is constant or rarely changes. The bytes are
+ * written straight to the servlet output with a precomputed {@code Content-Length} and a strong {@code ETag},
+ * and a conditional GET whose {@code If-None-Match} has the current ETag gets an empty 304 instead. Matching
+ * the header allocates nothing. {@link #update} swaps in a new body for content that does change now and then.
+ */
+public final class CachedJsonResponse {
+
+    private final ObjectMapper objectMapper;
+    private volatile Body body;
+
+    public CachedJsonResponse(ObjectMapper objectMapper, Object value) {
+        this.objectMapper = objectMapper;
+        update(value);
+    }
+
+    /** Serializes {@code value} as the new response; requests already being written keep the old one. */
+    public void update(Object value) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize response " + value, e);
+        }
+        body = new Body(bytes);
+    }
+
+    public void write(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Body current = body;
+        response.setHeader(HttpHeaders.ETAG, current.etag);
+        // Clients may keep the response, but must revalidate it, which costs them a 304
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), current.etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(current.bytes.length);
+        response.getOutputStream().write(current.bytes);
+    }
+
+    public String getETag() {
+        return body.etag;
+    }
+
+    // If-None-Match: "*" or a list of entity tags, compared weakly (RFC 9110 13.1.2), so W/ prefixes are ignored
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        int length = ifNoneMatch.length();
+        int i = 0;
+        while (i < length) {
+            char c = ifNoneMatch.charAt(i);
+            if (c == ' ' || c == '\t' || c == ',') {
+                i++;
+                continue;
+            }
+            if (c == '*') {
+                return true;
+            }
+            if (ifNoneMatch.startsWith("W/", i)) {
+                i += 2;
+            }
+            if (i >= length || ifNoneMatch.charAt(i) != '"') {
+                // Not an entity tag: skip to the next list element
+                int comma = ifNoneMatch.indexOf(',', i);
+                i = comma < 0 ? length : comma + 1;
+                continue;
+            }
+            // Entity tags may contain commas, so find the closing quote rather than the next comma
+            int close = ifNoneMatch.indexOf('"', i + 1);
+            if (close < 0) {
+                return false;
+            }
+            if (close + 1 - i == etag.length() && ifNoneMatch.startsWith(etag, i)) {
+                return true;
+            }
+            i = close + 1;
+        }
+        return false;
+    }
+
+    private static final class Body {
+
+        final byte[] bytes;
+        final String etag;
+
+        Body(byte[] bytes) {
+            this.bytes = bytes;
+            // Same form as Spring's ShallowEtagHeaderFilter
+            this.etag = "\"0" + DigestUtils.md5DigestAsHex(bytes) + '"';
+        }
+    }
+}
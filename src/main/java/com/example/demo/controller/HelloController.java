@@ -1,51 +1,86 @@
 package com.example.demo.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+// The reactive module serves the same endpoints with ReactiveHelloController
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class HelloController {
 
     private static final Logger logger = LoggerFactory.getLogger(HelloController.class);
+    private static final long MAX_SLOW_DELAY_MILLIS = 10_000;
+
+    private final HelloResponseWriter helloResponseWriter = new HelloResponseWriter();
+    // Constant responses, serialized once
+    private final CachedJsonResponse rootResponse;
+    private final CachedJsonResponse testLogsResponse;
+
+    public HelloController(ObjectMapper objectMapper) {
+        Map<String, String> root = new HashMap<>();
+        root.put("status", "running");
+        root.put("message", "Spring Boot OpenTelemetry Demo Application");
+        root.put("endpoints", "/hello, /slow, /health");
+        this.rootResponse = new CachedJsonResponse(objectMapper, root);
+        
+        Map<String, String> testLogs = new HashMap<>();
+        testLogs.put("status", "success");
+        testLogs.put("message", "Generated logs at all levels (TRACE, DEBUG, INFO, WARN, ERROR)");
+        testLogs.put("note", "Check your OTLP endpoint for the exported logs");
+        this.testLogsResponse = new CachedJsonResponse(objectMapper, testLogs);
+    }
 
     @GetMapping("/hello")
-    public Map<String, Object> hello(@RequestParam(value = "name", defaultValue = "World") String name) {
+    public void hello(@RequestParam(value = "name", defaultValue = "World") String name,
+                      HttpServletResponse response) throws IOException {
         logger.info("Received request to /hello endpoint with name: {}", name);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Hello, " + name + "!");
-        response.put("timestamp", LocalDateTime.now().toString());
-        response.put("service", "spring-boot-otel-demo");
-        
         logger.debug("Preparing response for name: {}", name);
-        logger.info("Successfully processed /hello request");
+        helloResponseWriter.write(name, response);
         
-        return response;
+        logger.info("Successfully processed /hello request");
     }
 
     @GetMapping("/")
-    public Map<String, String> root() {
+    public void root(HttpServletRequest request, HttpServletResponse response) throws IOException {
         logger.info("Received request to root endpoint");
         
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "running");
-        response.put("message", "Spring Boot OpenTelemetry Demo Application");
-        response.put("endpoints", "/hello, /health");
+        rootResponse.write(request, response);
         
         logger.info("Root endpoint accessed successfully");
+    }
+
+    @GetMapping("/slow")
+    public Map<String, Object> slow(@RequestParam(value = "delay", defaultValue = "100") long delay)
+            throws InterruptedException {
+        // Stands in for a blocking downstream call, to compare platform and virtual request threads
+        long delayMillis = Math.max(0, Math.min(delay, MAX_SLOW_DELAY_MILLIS));
+        logger.info("Received request to /slow endpoint, waiting {} ms", delayMillis);
+        
+        Thread.sleep(delayMillis);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("delay", delayMillis);
+        response.put("thread", Thread.currentThread().toString());
+        
+        logger.info("Successfully processed /slow request");
         
         return response;
     }
 
     @GetMapping("/test-logs")
-    public Map<String, String> testLogs() {
+    public void testLogs(HttpServletRequest request, HttpServletResponse response) throws IOException {
         logger.info("Testing different log levels...");
         
         logger.trace("This is a TRACE level log");
@@ -56,11 +91,6 @@ public class HelloController {
         
         logger.info("Log level test completed");
         
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "success");
-        response.put("message", "Generated logs at all levels (TRACE, DEBUG, INFO, WARN, ERROR)");
-        response.put("note", "Check your OTLP endpoint for the exported logs");
-        
-        return response;
+        testLogsResponse.write(request, response);
     }
 }
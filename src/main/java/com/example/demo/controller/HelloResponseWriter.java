@@ -0,0 +1,148 @@
+package com.example.demo.controller;
+
+import com.example.demo.telemetry.CachedClock;
+import com.example.demo.telemetry.PlatformThreadCache;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the {@code /hello} response, {@code {"service":...,"message":"Hello, <name>!","timestamp":...}}, as
+ * UTF-8 JSON without Jackson or an intermediate map. The constant parts are bytes prepared once, {@code name}
+ * is escaped and encoded straight into the output buffer, and the local timestamp, to the millisecond, is
+ * copied from the {@link CachedClock}. Each platform thread reuses one buffer; a name too long for it gets a
+ * buffer of its own.
+ */
+public final class HelloResponseWriter {
+
+    private static final byte[] MESSAGE_PREFIX =
+            "{\"service\":\"spring-boot-otel-demo\",\"message\":\"Hello, ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TIMESTAMP_PREFIX = "!\",\"timestamp\":\"".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+    // A six byte unicode escape, the longest form of one char; a surrogate pair takes 4 bytes for 2 chars
+    private static final int MAX_BYTES_PER_CHAR = 6;
+    private static final int BUFFER_SIZE = 1024;
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    private final CachedClock clock;
+    private final PlatformThreadCache<byte[]> buffers = new PlatformThreadCache<>(() -> new byte[BUFFER_SIZE]);
+
+    /** Timestamps from the {@linkplain CachedClock#shared() shared clock}. */
+    public HelloResponseWriter() {
+        this(CachedClock.shared());
+    }
+
+    public HelloResponseWriter(CachedClock clock) {
+        this.clock = clock;
+    }
+
+    /** Writes the response for {@code name}, with its {@code Content-Length}. */
+    public void write(String name, HttpServletResponse response) throws IOException {
+        int maxLength = maxLength(name);
+        byte[] buffer = maxLength <= BUFFER_SIZE ? buffers.get() : new byte[maxLength];
+        int length = encode(name, buffer);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(length);
+        response.getOutputStream().write(buffer, 0, length);
+    }
+
+    /** The most bytes {@link #encode} can take for {@code name}. */
+    public static int maxLength(String name) {
+        return MESSAGE_PREFIX.length + name.length() * MAX_BYTES_PER_CHAR + TIMESTAMP_PREFIX.length
+                + CachedClock.ISO_TIMESTAMP_MAX_LENGTH + SUFFIX.length;
+    }
+
+    /**
+     * Encodes the response for {@code name} into {@code buffer}, which must hold at least
+     * {@link #maxLength(String)} bytes, and returns its length.
+     */
+    public int encode(String name, byte[] buffer) {
+        int position = put(MESSAGE_PREFIX, buffer, 0);
+        position = putEscaped(name, buffer, position);
+        position = put(TIMESTAMP_PREFIX, buffer, position);
+        position = clock.putIsoTimestamp(buffer, position);
+        return put(SUFFIX, buffer, position);
+    }
+
+    private static int put(byte[] bytes, byte[] buffer, int position) {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        return position + bytes.length;
+    }
+
+    // JSON string content as Jackson writes it: short escapes where JSON has them, unicode escapes for other
+    // control characters, everything else as UTF-8. Lone surrogates, which Jackson rejects, are unicode escaped.
+    static int putEscaped(String value, byte[] buffer, int position) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buffer[position++] = (byte) c;
+                } else {
+                    position = putAsciiEscape(c, buffer, position);
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                position = putUnicodeEscape(c, buffer, position);
+            }
+        }
+        return position;
+    }
+
+    private static int putAsciiEscape(char c, byte[] buffer, int position) {
+        char shortEscape;
+        switch (c) {
+            case '"':
+                shortEscape = '"';
+                break;
+            case '\\':
+                shortEscape = '\\';
+                break;
+            case '\b':
+                shortEscape = 'b';
+                break;
+            case '\f':
+                shortEscape = 'f';
+                break;
+            case '\n':
+                shortEscape = 'n';
+                break;
+            case '\r':
+                shortEscape = 'r';
+                break;
+            case '\t':
+                shortEscape = 't';
+                break;
+            default:
+                return putUnicodeEscape(c, buffer, position);
+        }
+        buffer[position++] = '\\';
+        buffer[position++] = (byte) shortEscape;
+        return position;
+    }
+
+    private static int putUnicodeEscape(char c, byte[] buffer, int position) {
+        buffer[position++] = '\\';
+        buffer[position++] = 'u';
+        buffer[position++] = HEX[c >> 12 & 0xF];
+        buffer[position++] = HEX[c >> 8 & 0xF];
+        buffer[position++] = HEX[c >> 4 & 0xF];
+        buffer[position++] = HEX[c & 0xF];
+        return position;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import com.example.demo.telemetry.MpscRingBuffer;
+import com.example.demo.telemetry.WaitStrategy;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Console appender that takes formatting and stdout writes off the logging threads. Events go into a
+ * bounded {@link MpscRingBuffer}; a single writer thread encodes them, packs the lines into a direct
+ * {@link ByteBuffer} and writes each batch to the stdout (or stderr) file descriptor with one channel write.
+ * A slow log driver then only fills the ring buffer, and {@link OverflowPolicy} decides what a logging
+ * thread does when it is full.
+ * <p>
+ * Configured like a {@code ConsoleAppender} in {@code logback-spring.xml}, plus {@code ringBufferSize},
+ * {@code writeBufferSize}, {@code overflowPolicy}, {@code waitStrategy} and {@code includeCallerData}.
+ */
+public class AsyncConsoleAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    /** What a logging thread does when the ring buffer is full. */
+    public enum OverflowPolicy {
+        /** Drop the event and count it. Never blocks. */
+        DROP,
+        /** Wait for the writer to make room. Lossless, but a stalled console stalls the caller again. */
+        BLOCK,
+        /** Drop TRACE to INFO events, wait for room for WARN and ERROR. */
+        DROP_BELOW_WARN
+    }
+
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private Encoder<ILoggingEvent> encoder;
+    private String target = "System.out";
+    private int ringBufferSize = 8192;
+    private int writeBufferSize = 64 * 1024;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_BELOW_WARN;
+    private String waitStrategyName = "sleeping";
+    private boolean includeCallerData;
+
+    private MpscRingBuffer<ILoggingEvent> ringBuffer;
+    private WaitStrategy waitStrategy;
+    private FileChannel channel;
+    private ByteBuffer writeBuffer;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final Consumer<ILoggingEvent> encodeIntoBuffer = this::encodeIntoBuffer;
+    private final BooleanSupplier workAvailable = () -> ringBuffer.size() > 0;
+    private final LongAdder droppedEvents = new LongAdder();
+    private long reportedDroppedEvents;
+    private boolean writeFailed;
+
+    @Override
+    public void start() {
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "].");
+            return;
+        }
+        ringBuffer = new MpscRingBuffer<>(ringBufferSize);
+        waitStrategy = WaitStrategy.of(waitStrategyName);
+        // Not closed on stop: it is the process' stdout/stderr
+        channel = new FileOutputStream("System.err".equals(target) ? FileDescriptor.err : FileDescriptor.out)
+                .getChannel();
+        writeBuffer = ByteBuffer.allocateDirect(writeBufferSize);
+        running = true;
+        writerThread = new Thread(this::writeLoop, "async-console-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        // Freeze MDC, thread name and the formatted message while still on the logging thread
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        if (!ringBuffer.offer(event) && !handleOverflow(event)) {
+            droppedEvents.increment();
+            return;
+        }
+        waitStrategy.signal(writerThread);
+    }
+
+    /** Events dropped because the ring buffer was full. */
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    private boolean handleOverflow(ILoggingEvent event) {
+        boolean droppable = overflowPolicy == OverflowPolicy.DROP
+                || (overflowPolicy == OverflowPolicy.DROP_BELOW_WARN && !event.getLevel().isGreaterOrEqual(Level.WARN));
+        if (droppable) {
+            return false;
+        }
+        while (isStarted()) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (ringBuffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeLoop() {
+        int idleCount = 0;
+        while (running) {
+            int drained = ringBuffer.drain(encodeIntoBuffer, ringBuffer.capacity());
+            if (drained > 0) {
+                reportDroppedEvents();
+                flushBuffer();
+                idleCount = 0;
+            } else {
+                waitStrategy.idle(idleCount++, System.nanoTime() + MAX_IDLE_NANOS, workAvailable);
+            }
+        }
+        // Stopped: write out whatever is left
+        ringBuffer.drain(encodeIntoBuffer, ringBuffer.capacity());
+        reportDroppedEvents();
+        flushBuffer();
+    }
+
+    private void encodeIntoBuffer(ILoggingEvent event) {
+        byte[] line;
+        try {
+            line = encoder.encode(event);
+        } catch (RuntimeException e) {
+            addError("Failed to encode event", e);
+            return;
+        }
+        put(line);
+    }
+
+    private void put(byte[] bytes) {
+        if (bytes.length > writeBuffer.remaining()) {
+            flushBuffer();
+            if (bytes.length > writeBuffer.capacity()) {
+                // Larger than the whole buffer: write it on its own
+                write(ByteBuffer.wrap(bytes));
+                return;
+            }
+        }
+        writeBuffer.put(bytes);
+    }
+
+    private void reportDroppedEvents() {
+        long dropped = droppedEvents.sum();
+        if (dropped != reportedDroppedEvents) {
+            put(("AsyncConsoleAppender [" + name + "] dropped " + (dropped - reportedDroppedEvents)
+                    + " event(s), console output is not keeping up" + System.lineSeparator())
+                    .getBytes(StandardCharsets.UTF_8));
+            reportedDroppedEvents = dropped;
+        }
+    }
+
+    private void flushBuffer() {
+        writeBuffer.flip();
+        write(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void write(ByteBuffer buffer) {
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            writeFailed = false;
+        } catch (IOException e) {
+            if (!writeFailed) {
+                addError("Failed to write to " + target, e);
+                writeFailed = true;
+            }
+        }
+    }
+
+    public void setEncoder(Encoder<ILoggingEvent> encoder) {
+        this.encoder = encoder;
+    }
+
+    /** {@code System.out} (default) or {@code System.err}. */
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    /** Slots in the ring buffer, rounded up to a power of two. */
+    public void setRingBufferSize(int ringBufferSize) {
+        this.ringBufferSize = ringBufferSize;
+    }
+
+    /** Bytes batched per write; longer lines are written on their own. */
+    public void setWriteBufferSize(int writeBufferSize) {
+        this.writeBufferSize = writeBufferSize;
+    }
+
+    /** {@code drop}, {@code block} or {@code drop-below-warn} (default). */
+    public void setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = OverflowPolicy.valueOf(
+                overflowPolicy.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+    }
+
+    /** Writer thread wait strategy: {@code busy-spin}, {@code yielding}, {@code sleeping} or {@code blocking}. */
+    public void setWaitStrategy(String waitStrategy) {
+        this.waitStrategyName = waitStrategy;
+    }
+
+    /** Capture caller data on the logging thread, for {@code %caller}, {@code %line} and similar conversions. */
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+}
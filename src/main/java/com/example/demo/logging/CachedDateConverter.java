@@ -0,0 +1,43 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import com.example.demo.telemetry.CachedClock;
+
+/**
+ * {@code %cachedDate}: the event's timestamp as {@code yyyy-MM-dd HH:mm:ss.SSS}, what
+ * {@code %d{yyyy-MM-dd HH:mm:ss.SSS}} writes, from the date and time of the second that {@link CachedClock}
+ * formats once. Like Logback's date converter it keeps the text of the last millisecond, and only appends the
+ * milliseconds to the cached second when that changes, instead of running a {@code DateTimeFormatter}.
+ * <p>
+ * Registered in {@code logback-spring.xml} with a {@code conversionRule}; takes no options.
+ */
+public class CachedDateConverter extends ClassicConverter {
+
+    private final CachedClock clock = CachedClock.shared();
+    private volatile Formatted last = new Formatted(Long.MIN_VALUE, "");
+
+    @Override
+    public String convert(ILoggingEvent event) {
+        long timestamp = event.getTimeStamp();
+        Formatted formatted = last;
+        if (formatted.epochMillis != timestamp) {
+            StringBuilder text = new StringBuilder(23);
+            clock.appendLogTimestamp(timestamp, text);
+            formatted = new Formatted(timestamp, text.toString());
+            last = formatted;
+        }
+        return formatted.text;
+    }
+
+    private static final class Formatted {
+
+        final long epochMillis;
+        final String text;
+
+        Formatted(long epochMillis, String text) {
+            this.epochMillis = epochMillis;
+            this.text = text;
+        }
+    }
+}
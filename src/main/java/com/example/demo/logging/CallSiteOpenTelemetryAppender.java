@@ -0,0 +1,77 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.opentelemetry.instrumentation.logback.appender.v1_0.OpenTelemetryAppender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link OpenTelemetryAppender} that fills in the caller data from a {@link CallSiteResolver} before the
+ * event is mapped. With {@code captureCodeAttributes} enabled the stock appender asks the event for its
+ * caller data, which Logback computes by creating a {@code Throwable} and materialising the whole stack on
+ * every statement; here the {@code code.*} attributes come from the per-call-site cache instead.
+ * <p>
+ * The caller data set on the event holds only the calling frame, which is all the {@code code.*} attributes
+ * use. With {@code captureCodeAttributes} off nothing is resolved, and the event, which other appenders see
+ * too, is left as it is. Still found by {@link OpenTelemetryAppender#install}, as it is a subclass.
+ */
+public class CallSiteOpenTelemetryAppender extends OpenTelemetryAppender {
+
+    private final List<String> frameworkPackages = new ArrayList<>();
+    private int maxCallSites = 4096;
+    private int verifyInterval = 1024;
+    private boolean captureCodeAttributes;
+
+    private CallSiteResolver callSiteResolver;
+
+    @Override
+    public void start() {
+        List<String> packages = new ArrayList<>(frameworkPackages);
+        if (context instanceof LoggerContext) {
+            packages.addAll(((LoggerContext) context).getFrameworkPackages());
+        }
+        callSiteResolver = new CallSiteResolver(packages, maxCallSites, verifyInterval);
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (captureCodeAttributes && event instanceof LoggingEvent && !event.hasCallerData()) {
+            ((LoggingEvent) event).setCallerData(callSiteResolver.resolve(event.getLoggerName(), event.getMessage()));
+        }
+        super.append(event);
+    }
+
+    @Override
+    public void setCaptureCodeAttributes(boolean captureCodeAttributes) {
+        this.captureCodeAttributes = captureCodeAttributes;
+        super.setCaptureCodeAttributes(captureCodeAttributes);
+    }
+
+    protected boolean isCaptureCodeAttributes() {
+        return captureCodeAttributes;
+    }
+
+    /** Call sites currently cached. */
+    public int getCachedCallSites() {
+        return callSiteResolver == null ? 0 : callSiteResolver.size();
+    }
+
+    /** Package prefix whose frames are skipped when looking for the caller; may be repeated. */
+    public void addFrameworkPackage(String frameworkPackage) {
+        this.frameworkPackages.add(frameworkPackage.trim());
+    }
+
+    /** Upper bound on cached call sites; statements beyond it are resolved by walking the stack. */
+    public void setMaxCallSites(int maxCallSites) {
+        this.maxCallSites = maxCallSites;
+    }
+
+    /** Hits between re-checks of a cached call site against the actual stack. */
+    public void setVerifyInterval(int verifyInterval) {
+        this.verifyInterval = verifyInterval;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.logging;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resolves the class, method and line that issued a log statement without building a full stack trace
+ * per event. A {@link StackWalker} walks lazily and stops at the first frame outside the logging frameworks,
+ * and the result is cached per call site, keyed by logger name and message template: a constant template
+ * logged through the same logger almost always comes from the same line, so repeated statements cost two map
+ * lookups.
+ * <p>
+ * Two statements that share a logger and template (a bare {@code log.info("Done")} in two methods) would
+ * share an entry. Every {@code verifyInterval}-th hit walks the stack again; an entry that turns out to
+ * cover more than one location is marked ambiguous and resolved by walking from then on. Templates built by
+ * concatenation never repeat, so at most {@code maxCallSites} entries are kept and anything beyond is walked
+ * uncached.
+ */
+public final class CallSiteResolver {
+
+    // Frames skipped on top of the logger context's own framework packages
+    private static final List<String> DEFAULT_FRAMEWORK_PACKAGES = List.of(
+            "ch.qos.logback.", "org.slf4j.", "org.apache.commons.logging.", "org.apache.logging.log4j.",
+            "org.apache.logging.slf4j.", "java.util.logging.", "org.springframework.boot.logging.",
+            "org.apache.juli.logging.", "io.opentelemetry.instrumentation.logback.",
+            CallSiteResolver.class.getPackageName() + ".");
+    private static final StackTraceElement[] UNKNOWN = new StackTraceElement[0];
+
+    private final StackWalker stackWalker = StackWalker.getInstance();
+    private final String[] frameworkPackages;
+    private final int maxCallSites;
+    private final int verifyMask;
+    private final Map<String, Map<String, CallSite>> callSitesByLogger = new ConcurrentHashMap<>();
+    private final AtomicInteger callSites = new AtomicInteger();
+
+    /**
+     * @param frameworkPackages additional package prefixes whose frames are never reported as the caller
+     * @param maxCallSites      upper bound on cached call sites
+     * @param verifyInterval    hits between re-walks of a cached call site, rounded up to a power of two
+     */
+    public CallSiteResolver(List<String> frameworkPackages, int maxCallSites, int verifyInterval) {
+        if (maxCallSites < 0) {
+            throw new IllegalArgumentException("maxCallSites must be >= 0");
+        }
+        if (verifyInterval <= 0) {
+            throw new IllegalArgumentException("verifyInterval must be > 0");
+        }
+        Set<String> prefixes = new LinkedHashSet<>(DEFAULT_FRAMEWORK_PACKAGES);
+        for (String prefix : frameworkPackages) {
+            prefixes.add(prefix.endsWith(".") ? prefix : prefix + ".");
+        }
+        this.frameworkPackages = prefixes.toArray(new String[0]);
+        this.maxCallSites = maxCallSites;
+        this.verifyMask = verifyInterval == 1 ? 0 : Integer.highestOneBit(verifyInterval - 1) * 2 - 1;
+    }
+
+    /**
+     * Caller data for a statement issued through {@code loggerName} with {@code messageTemplate}, as a
+     * single-element array in the shape of {@code ILoggingEvent.getCallerData()}. Must be called on the
+     * logging thread, below the logging framework's frames.
+     */
+    public StackTraceElement[] resolve(String loggerName, String messageTemplate) {
+        if (loggerName == null || messageTemplate == null) {
+            return walk();
+        }
+        Map<String, CallSite> byTemplate = callSitesByLogger.get(loggerName);
+        if (byTemplate == null) {
+            byTemplate = callSitesByLogger.computeIfAbsent(loggerName, key -> new ConcurrentHashMap<>());
+        }
+        CallSite callSite = byTemplate.get(messageTemplate);
+        if (callSite == null) {
+            StackTraceElement[] callerData = walk();
+            if (callSites.get() < maxCallSites && callSites.incrementAndGet() <= maxCallSites) {
+                byTemplate.putIfAbsent(messageTemplate, new CallSite(callerData));
+            }
+            return callerData;
+        }
+        if (callSite.ambiguous) {
+            return walk();
+        }
+        // Racy increment: a lost update only shifts when the next verification happens
+        if ((++callSite.hits & verifyMask) == 0) {
+            StackTraceElement[] callerData = walk();
+            if (!sameLocation(callerData, callSite.callerData)) {
+                callSite.ambiguous = true;
+                return callerData;
+            }
+        }
+        return callSite.callerData;
+    }
+
+    /** Call sites currently cached. */
+    public int size() {
+        return Math.min(callSites.get(), maxCallSites);
+    }
+
+    private StackTraceElement[] walk() {
+        Optional<StackWalker.StackFrame> caller = stackWalker.walk(frames -> frames
+                .filter(frame -> !isFramework(frame.getClassName()))
+                .findFirst());
+        return caller.map(frame -> new StackTraceElement[] {frame.toStackTraceElement()}).orElse(UNKNOWN);
+    }
+
+    private boolean isFramework(String className) {
+        for (String prefix : frameworkPackages) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sameLocation(StackTraceElement[] a, StackTraceElement[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return a.length == b.length;
+        }
+        return a[0].getLineNumber() == b[0].getLineNumber()
+                && a[0].getClassName().equals(b[0].getClassName())
+                && a[0].getMethodName().equals(b[0].getMethodName());
+    }
+
+    private static final class CallSite {
+
+        final StackTraceElement[] callerData;
+        int hits;
+        volatile boolean ambiguous;
+
+        CallSite(StackTraceElement[] callerData) {
+            this.callerData = callerData;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.util.Duration;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.logs.LogRecordBuilder;
+import io.opentelemetry.api.logs.Severity;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.semconv.SemanticAttributes;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CallSiteOpenTelemetryAppender} that collapses repeated events with a {@link DuplicateLogSuppressor}
+ * before any mapping work is done for them. The first event of a fingerprint (logger, level, message
+ * template) is forwarded as usual; its repeats within the window, which is tumbling, are dropped and then
+ * exported as one record with the last repeat's message and a {@code log.record.repeat_count} attribute.
+ * <p>
+ * The guarantees of {@link LogSamplingFilter} hold here too: events at {@code alwaysKeepLevel} (WARN by default)
+ * and above, and with {@code traceCorrelated} (default) events logged inside a sampled span, are never
+ * suppressed and do not count as repeats, so they keep their own trace context.
+ * <p>
+ * Windows are closed by a sweep on the Logback context's scheduler, so summaries carry no trace context or
+ * MDC of their own: they stand for many events, possibly from many requests.
+ */
+public class DeduplicatingOpenTelemetryAppender extends CallSiteOpenTelemetryAppender {
+
+    static final AttributeKey<Long> REPEAT_COUNT = AttributeKey.longKey("log.record.repeat_count");
+
+    private boolean deduplicate = true;
+    private Duration duplicateWindow = Duration.buildBySeconds(5);
+    private int maxFingerprints = 10_000;
+    private Level alwaysKeepLevel = Level.WARN;
+    private boolean traceCorrelated = true;
+
+    private volatile OpenTelemetry openTelemetry;
+    private DuplicateLogSuppressor suppressor;
+    private ScheduledFuture<?> sweep;
+
+    @Override
+    public void start() {
+        if (deduplicate) {
+            long windowNanos = TimeUnit.MILLISECONDS.toNanos(duplicateWindow.getMilliseconds());
+            suppressor = new DuplicateLogSuppressor(windowNanos, maxFingerprints);
+            // Sweeping at half the window bounds how late a summary can be
+            long periodNanos = Math.max(windowNanos / 2, TimeUnit.MILLISECONDS.toNanos(100));
+            sweep = getContext().getScheduledExecutorService().scheduleAtFixedRate(
+                    () -> sweep(false), periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+            getContext().addScheduledFuture(sweep);
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (sweep != null) {
+            sweep.cancel(false);
+            sweep(true);
+        }
+        super.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (suppressor == null || alwaysKept(event) || suppressor.admit(event, System.nanoTime())) {
+            super.append(event);
+        }
+    }
+
+    private boolean alwaysKept(ILoggingEvent event) {
+        return event.getLevel().isGreaterOrEqual(alwaysKeepLevel)
+                || traceCorrelated && Span.current().getSpanContext().isSampled();
+    }
+
+    @Override
+    public void setOpenTelemetry(OpenTelemetry openTelemetry) {
+        this.openTelemetry = openTelemetry;
+        super.setOpenTelemetry(openTelemetry);
+    }
+
+    /** Events dropped as repeats. */
+    public long getSuppressedEvents() {
+        return suppressor == null ? 0 : suppressor.getSuppressed();
+    }
+
+    private void sweep(boolean force) {
+        try {
+            suppressor.sweep(System.nanoTime(), force, this::emit);
+        } catch (RuntimeException e) {
+            addError("Failed to emit duplicate log summaries", e);
+        }
+    }
+
+    private void emit(DuplicateLogSuppressor.Summary summary) {
+        OpenTelemetry openTelemetry = this.openTelemetry;
+        if (openTelemetry == null) {
+            return;
+        }
+        ILoggingEvent last = summary.getLastEvent();
+        Level level = summary.getLevel();
+        LogRecordBuilder builder = openTelemetry.getLogsBridge()
+                .loggerBuilder(summary.getLoggerName())
+                .build()
+                .logRecordBuilder()
+                .setTimestamp(last.getTimeStamp(), TimeUnit.MILLISECONDS)
+                .setSeverity(severity(level))
+                .setSeverityText(level.levelStr)
+                .setBody(last.getFormattedMessage())
+                .setAttribute(REPEAT_COUNT, summary.getRepeatCount())
+                .setAttribute(SemanticAttributes.THREAD_NAME, last.getThreadName());
+        // The first event went through the appender, so it already holds the resolved caller
+        StackTraceElement[] callerData = summary.getFirstEvent().getCallerData();
+        if (isCaptureCodeAttributes() && callerData != null && callerData.length > 0) {
+            StackTraceElement caller = callerData[0];
+            builder.setAttribute(SemanticAttributes.CODE_NAMESPACE, caller.getClassName())
+                    .setAttribute(SemanticAttributes.CODE_FUNCTION, caller.getMethodName());
+            if (caller.getFileName() != null) {
+                builder.setAttribute(SemanticAttributes.CODE_FILEPATH, caller.getFileName());
+            }
+            if (caller.getLineNumber() > 0) {
+                builder.setAttribute(SemanticAttributes.CODE_LINENO, (long) caller.getLineNumber());
+            }
+        }
+        builder.emit();
+    }
+
+    private static Severity severity(Level level) {
+        switch (level.levelInt) {
+            case Level.TRACE_INT:
+                return Severity.TRACE;
+            case Level.DEBUG_INT:
+                return Severity.DEBUG;
+            case Level.INFO_INT:
+                return Severity.INFO;
+            case Level.WARN_INT:
+                return Severity.WARN;
+            case Level.ERROR_INT:
+                return Severity.ERROR;
+            default:
+                return Severity.UNDEFINED_SEVERITY_NUMBER;
+        }
+    }
+
+    /** Collapse repeated events; defaults to true. */
+    public void setDeduplicate(boolean deduplicate) {
+        this.deduplicate = deduplicate;
+    }
+
+    /** How long repeats of an event are collapsed into one summary, e.g. {@code 5 seconds} (default). */
+    public void setDuplicateWindow(Duration duplicateWindow) {
+        this.duplicateWindow = duplicateWindow;
+    }
+
+    /** Events at this level and above are never suppressed; defaults to WARN, as in {@link LogSamplingFilter}. */
+    public void setAlwaysKeepLevel(String alwaysKeepLevel) {
+        this.alwaysKeepLevel = Level.toLevel(alwaysKeepLevel.trim(), Level.WARN);
+    }
+
+    /** Never suppress events logged inside a sampled span; defaults to true. */
+    public void setTraceCorrelated(boolean traceCorrelated) {
+        this.traceCorrelated = traceCorrelated;
+    }
+
+    /** Upper bound on tracked fingerprints; events of new fingerprints pass untracked beyond it. */
+    public void setMaxFingerprints(int maxFingerprints) {
+        this.maxFingerprints = maxFingerprints;
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import com.example.demo.telemetry.PlatformThreadCache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Collapses repeated log events. Events are fingerprinted by logger, level and message template; the first
+ * event of a fingerprint opens a window and is let through, repeats within the window are suppressed and
+ * counted, and once the window has passed the repeats are reported as one {@link Summary}.
+ * <p>
+ * Windows are tumbling, not sliding: a window lasts {@code windowNanos} from the event that opened it, and
+ * repeats do not extend it. A window that slid with every repeat would never close on a statement logged
+ * steadily, such as one per request, so its count would only be exported once the traffic stops. A tumbling
+ * window reports such a statement once per window, which bounds how late and how large a summary gets.
+ * <p>
+ * Windows live in a map bounded by {@code maxFingerprints}: {@link #sweep} closes expired windows and removes
+ * the idle ones, and while the map is full, events of new fingerprints pass through untracked rather than
+ * evicting live windows. No count is lost to eviction, as a window is only removed after its summary has
+ * been handed out. Lookups reuse a key per platform thread, so only a new fingerprint allocates there. Windows
+ * are guarded by locks rather than monitors, so virtual threads logging the same statement wait for each other
+ * without pinning their carrier threads.
+ */
+public final class DuplicateLogSuppressor {
+
+    private final long windowNanos;
+    private final int maxFingerprints;
+    private final Map<Fingerprint, Window> windows = new ConcurrentHashMap<>();
+    private final Queue<Summary> closedWindows = new ConcurrentLinkedQueue<>();
+    private final PlatformThreadCache<Fingerprint> lookupKey = new PlatformThreadCache<>(Fingerprint::new);
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+
+    public DuplicateLogSuppressor(long windowNanos, int maxFingerprints) {
+        if (windowNanos <= 0) {
+            throw new IllegalArgumentException("windowNanos must be > 0");
+        }
+        if (maxFingerprints <= 0) {
+            throw new IllegalArgumentException("maxFingerprints must be > 0");
+        }
+        this.windowNanos = windowNanos;
+        this.maxFingerprints = maxFingerprints;
+    }
+
+    /** Whether {@code event} should be forwarded; false for a repeat within its fingerprint's window. */
+    public boolean admit(ILoggingEvent event, long nowNanos) {
+        String template = event.getMessage();
+        if (template == null) {
+            return true;
+        }
+        Fingerprint key = lookupKey.get().set(event.getLoggerName(), event.getLevel(), template);
+        while (true) {
+            Window window = windows.get(key);
+            if (window == null) {
+                if (windows.size() >= maxFingerprints) {
+                    untracked.increment();
+                    return true;
+                }
+                Window created = new Window(event, nowNanos);
+                window = windows.putIfAbsent(key.copy(), created);
+                if (window == null) {
+                    return true;
+                }
+            }
+            int admitted = window.admit(event, nowNanos, windowNanos, closedWindows);
+            if (admitted != Window.REMOVED) {
+                if (admitted == Window.SUPPRESSED) {
+                    suppressed.increment();
+                    return false;
+                }
+                return true;
+            }
+            // Removed by a concurrent sweep: open a new window
+        }
+    }
+
+    /**
+     * Hands out a summary for every window that has passed with repeats in it and removes idle windows.
+     * {@code force} closes all windows regardless of age, for shutdown.
+     */
+    public void sweep(long nowNanos, boolean force, Consumer<Summary> summaries) {
+        for (Iterator<Map.Entry<Fingerprint, Window>> it = windows.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Fingerprint, Window> entry = it.next();
+            Window window = entry.getValue();
+            if (window.closeIfExpired(entry.getKey(), nowNanos, force ? 0 : windowNanos, closedWindows)) {
+                it.remove();
+            }
+        }
+        for (Summary summary; (summary = closedWindows.poll()) != null; ) {
+            summaries.accept(summary);
+        }
+    }
+
+    /** Events suppressed as repeats. */
+    public long getSuppressed() {
+        return suppressed.sum();
+    }
+
+    /** Events passed through untracked because the fingerprint map was full. */
+    public long getUntracked() {
+        return untracked.sum();
+    }
+
+    /** Fingerprints currently tracked. */
+    public int size() {
+        return windows.size();
+    }
+
+    /** Repeats of one fingerprint within one window. */
+    public static final class Summary {
+
+        private final String loggerName;
+        private final Level level;
+        private final ILoggingEvent firstEvent;
+        private final ILoggingEvent lastEvent;
+        private final long repeatCount;
+
+        Summary(String loggerName, Level level, ILoggingEvent firstEvent, ILoggingEvent lastEvent, long repeatCount) {
+            this.loggerName = loggerName;
+            this.level = level;
+            this.firstEvent = firstEvent;
+            this.lastEvent = lastEvent;
+            this.repeatCount = repeatCount;
+        }
+
+        public String getLoggerName() {
+            return loggerName;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        /** The event that opened the window, which was forwarded. */
+        public ILoggingEvent getFirstEvent() {
+            return firstEvent;
+        }
+
+        /** The last suppressed repeat. */
+        public ILoggingEvent getLastEvent() {
+            return lastEvent;
+        }
+
+        /** Suppressed repeats, not counting the first event. */
+        public long getRepeatCount() {
+            return repeatCount;
+        }
+    }
+
+    private static final class Window {
+
+        static final int ADMITTED = 0;
+        static final int SUPPRESSED = 1;
+        static final int REMOVED = 2;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long startNanos;
+        private long lastSeenNanos;
+        private ILoggingEvent firstEvent;
+        private ILoggingEvent lastEvent;
+        private long repeats;
+        private boolean removed;
+
+        Window(ILoggingEvent firstEvent, long nowNanos) {
+            this.firstEvent = firstEvent;
+            this.startNanos = nowNanos;
+            this.lastSeenNanos = nowNanos;
+        }
+
+        int admit(ILoggingEvent event, long nowNanos, long windowNanos, Queue<Summary> closed) {
+            lock.lock();
+            try {
+                if (removed) {
+                    return REMOVED;
+                }
+                lastSeenNanos = nowNanos;
+                if (firstEvent == null) {
+                    // Reopened by a sweep while still in use
+                    firstEvent = event;
+                    return ADMITTED;
+                }
+                if (nowNanos - startNanos < windowNanos) {
+                    // Holds on to the formatted message and MDC once the logging thread has moved on
+                    event.prepareForDeferredProcessing();
+                    lastEvent = event;
+                    repeats++;
+                    return SUPPRESSED;
+                }
+                close(event.getLoggerName(), event.getLevel(), closed);
+                startNanos = nowNanos;
+                firstEvent = event;
+                return ADMITTED;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean closeIfExpired(Fingerprint key, long nowNanos, long windowNanos, Queue<Summary> closed) {
+            lock.lock();
+            try {
+                if (nowNanos - startNanos < windowNanos) {
+                    return false;
+                }
+                close(key.loggerName, key.level, closed);
+                firstEvent = null;
+                if (nowNanos - lastSeenNanos < windowNanos) {
+                    // Still in use: the next event reopens it
+                    startNanos = nowNanos;
+                    return false;
+                }
+                removed = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void close(String loggerName, Level level, Queue<Summary> closed) {
+            if (repeats > 0) {
+                closed.add(new Summary(loggerName, level, firstEvent, lastEvent, repeats));
+            }
+            lastEvent = null;
+            repeats = 0;
+        }
+    }
+
+    // Mutable so lookups can reuse one instance per thread; keys stored in the map are copies
+    private static final class Fingerprint {
+
+        private String loggerName;
+        private Level level;
+        private String template;
+        private int hash;
+
+        Fingerprint set(String loggerName, Level level, String template) {
+            this.loggerName = loggerName;
+            this.level = level;
+            this.template = template;
+            this.hash = (loggerName.hashCode() * 31 + level.levelInt) * 31 + template.hashCode();
+            return this;
+        }
+
+        Fingerprint copy() {
+            return new Fingerprint().set(loggerName, level, template);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Fingerprint)) {
+                return false;
+            }
+            Fingerprint other = (Fingerprint) o;
+            return hash == other.hash
+                    && level.levelInt == other.level.levelInt
+                    && loggerName.equals(other.loggerName)
+                    && template.equals(other.template);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
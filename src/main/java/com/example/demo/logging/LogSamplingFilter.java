@@ -0,0 +1,175 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Samples the events an appender forwards, per logger and per level, before any mapping or export work is
+ * done for them. Attached to the {@code OTEL} appender in {@code logback-spring.xml}, so the console still
+ * shows everything.
+ * <ul>
+ *   <li>Events at {@code alwaysKeepLevel} (WARN by default) and above are always kept.</li>
+ *   <li>Below it, the most specific {@link LogSamplingRule} applies: longest matching logger name first, then a
+ *       rule for the event's level over one for every level. Events no rule covers are kept.</li>
+ *   <li>With {@code traceCorrelated} (default), events logged inside a sampled span are kept, so the logs of a
+ *       sampled trace stay together. Inside an unsampled span the ratio is decided from the trace id, which gives
+ *       every log of the trace the same decision.</li>
+ * </ul>
+ * The matching rules are resolved once per logger and level and cached. A rule that fails to start is reported
+ * and left out; a filter that is not started passes every event.
+ */
+public class LogSamplingFilter extends Filter<ILoggingEvent> {
+
+    private static final LogSamplingRule[] NO_RULES = new LogSamplingRule[0];
+    private static final int LEVELS = 5;
+
+    private final List<LogSamplingRule> rules = new ArrayList<>();
+    private Level alwaysKeepLevel = Level.WARN;
+    private boolean traceCorrelated = true;
+    private boolean enabled = true;
+
+    private final Map<String, LogSamplingRule[]> rulesByLogger = new ConcurrentHashMap<>();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    @Override
+    public void start() {
+        // An invalid rule is dropped, not the filter: the events it would have covered fall to the other rules
+        for (Iterator<LogSamplingRule> it = rules.iterator(); it.hasNext(); ) {
+            LogSamplingRule rule = it.next();
+            try {
+                rule.start();
+            } catch (IllegalArgumentException e) {
+                addError("Invalid sampling rule " + rule + ", ignoring it: " + e.getMessage());
+                it.remove();
+            }
+        }
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        Level level = event.getLevel();
+        if (!enabled || !isStarted() || level.isGreaterOrEqual(alwaysKeepLevel)) {
+            return FilterReply.NEUTRAL;
+        }
+        LogSamplingRule rule = ruleFor(event.getLoggerName(), level);
+        if (rule == null) {
+            return FilterReply.NEUTRAL;
+        }
+        boolean sampled;
+        SpanContext spanContext = traceCorrelated ? Span.current().getSpanContext() : SpanContext.getInvalid();
+        if (spanContext.isValid()) {
+            if (spanContext.isSampled()) {
+                return FilterReply.NEUTRAL;
+            }
+            sampled = rule.sample(traceIdRandomPart(spanContext.getTraceId()));
+        } else {
+            sampled = rule.sample();
+        }
+        if (!sampled) {
+            sampledOut.increment();
+            return FilterReply.DENY;
+        }
+        if (!rule.tryAcquire(System.nanoTime())) {
+            rateLimited.increment();
+            return FilterReply.DENY;
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    /** Events dropped by a rule's ratio. */
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    /** Events dropped by a rule's rate limit. */
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    private LogSamplingRule ruleFor(String loggerName, Level level) {
+        LogSamplingRule[] byLevel = rulesByLogger.get(loggerName);
+        if (byLevel == null) {
+            byLevel = rulesByLogger.computeIfAbsent(loggerName, this::resolveRules);
+        }
+        return byLevel.length == 0 ? null : byLevel[levelIndex(level)];
+    }
+
+    private LogSamplingRule[] resolveRules(String loggerName) {
+        LogSamplingRule[] byLevel = new LogSamplingRule[LEVELS];
+        boolean any = false;
+        for (Level level : new Level[] {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR}) {
+            LogSamplingRule best = null;
+            for (LogSamplingRule rule : rules) {
+                if (rule.matches(loggerName) && rule.appliesTo(level) && (best == null || moreSpecific(rule, best))) {
+                    best = rule;
+                }
+            }
+            byLevel[levelIndex(level)] = best;
+            any |= best != null;
+        }
+        return any ? byLevel : NO_RULES;
+    }
+
+    private static boolean moreSpecific(LogSamplingRule rule, LogSamplingRule than) {
+        if (rule.specificity() != than.specificity()) {
+            return rule.specificity() > than.specificity();
+        }
+        return rule.hasLevel() && !than.hasLevel();
+    }
+
+    private static int levelIndex(Level level) {
+        switch (level.levelInt) {
+            case Level.TRACE_INT:
+                return 0;
+            case Level.DEBUG_INT:
+                return 1;
+            case Level.INFO_INT:
+                return 2;
+            case Level.WARN_INT:
+                return 3;
+            default:
+                return 4;
+        }
+    }
+
+    // Last 16 hex digits of the trace id, the part W3C trace ids keep random
+    private static long traceIdRandomPart(String traceId) {
+        long value = 0;
+        for (int i = traceId.length() - 16; i < traceId.length(); i++) {
+            value = (value << 4) | Character.digit(traceId.charAt(i), 16);
+        }
+        return value;
+    }
+
+    public void addRule(LogSamplingRule rule) {
+        rules.add(rule);
+    }
+
+    /** Events at this level and above are never sampled out; defaults to WARN. */
+    public void setAlwaysKeepLevel(String alwaysKeepLevel) {
+        this.alwaysKeepLevel = Level.toLevel(alwaysKeepLevel.trim(), Level.WARN);
+    }
+
+    /** Keep all logs of sampled traces and decide by trace id inside unsampled ones; defaults to true. */
+    public void setTraceCorrelated(boolean traceCorrelated) {
+        this.traceCorrelated = traceCorrelated;
+    }
+
+    /** Pass every event through when false. */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
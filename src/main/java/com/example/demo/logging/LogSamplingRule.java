@@ -0,0 +1,128 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.Level;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One {@code <rule>} of a {@link LogSamplingFilter}: the share of events kept for a logger (and its
+ * descendants) at one level or at every level, and an optional rate limit on top.
+ * <p>
+ * The rate limit is a token bucket in its GCRA form: a single "theoretical arrival time" advanced by CAS, so
+ * it needs no lock and no refill thread. Each rule has its own bucket.
+ */
+public class LogSamplingRule {
+
+    private String logger = "";
+    private Level level;
+    private double ratio = 1.0;
+    private double ratePerSecond;
+    private int burst;
+
+    private long ratioUpperBound;
+    private long emissionIntervalNanos;
+    private long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    void start() {
+        if (ratio < 0.0 || ratio > 1.0) {
+            throw new IllegalArgumentException("ratio must be between 0 and 1: " + ratio);
+        }
+        if (ratePerSecond < 0.0) {
+            throw new IllegalArgumentException("ratePerSecond must be >= 0: " + ratePerSecond);
+        }
+        ratioUpperBound = ratio >= 1.0 ? Long.MAX_VALUE : (long) (ratio * Long.MAX_VALUE);
+        emissionIntervalNanos = ratePerSecond == 0.0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long burstEvents = burst > 0 ? burst : Math.max(1, (long) Math.ceil(ratePerSecond));
+        burstToleranceNanos = emissionIntervalNanos * burstEvents;
+    }
+
+    /** Whether this rule covers events of {@code loggerName}. */
+    boolean matches(String loggerName) {
+        return logger.isEmpty()
+                || loggerName.equals(logger)
+                || (loggerName.startsWith(logger) && loggerName.charAt(logger.length()) == '.');
+    }
+
+    /** Whether this rule applies at {@code eventLevel}; a rule without a level applies at every level. */
+    boolean appliesTo(Level eventLevel) {
+        return level == null || level.levelInt == eventLevel.levelInt;
+    }
+
+    /** Ratio decision for an event outside any trace. */
+    boolean sample() {
+        return ratioUpperBound == Long.MAX_VALUE
+                || (ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE) < ratioUpperBound;
+    }
+
+    /**
+     * Ratio decision derived from the trace id's random part, so every log of a trace gets the same decision,
+     * in this service and in any other one sampling at the same ratio.
+     */
+    boolean sample(long traceIdRandomPart) {
+        return ratioUpperBound == Long.MAX_VALUE || (traceIdRandomPart & Long.MAX_VALUE) < ratioUpperBound;
+    }
+
+    /** Takes a token from the bucket; always succeeds without a rate limit. */
+    boolean tryAcquire(long nowNanos) {
+        if (emissionIntervalNanos == 0) {
+            return true;
+        }
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + emissionIntervalNanos;
+            if (next - nowNanos > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+
+    /** Length of the logger name, for picking the most specific rule. */
+    int specificity() {
+        return logger.length();
+    }
+
+    boolean hasLevel() {
+        return level != null;
+    }
+
+    /** Logger name the rule covers, with its descendants; empty or {@code ROOT} for all loggers. */
+    public void setLogger(String logger) {
+        String name = logger.trim();
+        this.logger = org.slf4j.Logger.ROOT_LOGGER_NAME.equalsIgnoreCase(name) ? "" : name;
+    }
+
+    /** Level the rule applies to; unset for every level below the filter's {@code alwaysKeepLevel}. */
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level.trim(), null);
+        if (this.level == null) {
+            throw new IllegalArgumentException("Unknown level: " + level);
+        }
+    }
+
+    /** Share of events kept, from 0 to 1 (default). */
+    public void setRatio(double ratio) {
+        this.ratio = ratio;
+    }
+
+    /** Events kept per second after the ratio; 0 (default) for no limit. */
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /** Events that may pass at once after an idle period; defaults to one second's worth. */
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    @Override
+    public String toString() {
+        return (logger.isEmpty() ? "ROOT" : logger) + (level == null ? "" : "@" + level)
+                + " ratio=" + ratio + (ratePerSecond == 0.0 ? "" : " rate=" + ratePerSecond + "/s");
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.logging;
+
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copies an allowlist of MDC entries onto every log record, in place of the Logback appender's
+ * {@code captureMdcAttributes}. The {@link AttributeKey}s are created once, here, and each value is read
+ * straight from the MDC and set on the record, with no intermediate map or attributes builder.
+ * <p>
+ * Must be registered before the exporting processor, which snapshots the record in {@code onEmit}. The
+ * appender emits on the logging thread, so the thread's MDC is the one the event was logged with. An
+ * allowlist of {@code *} copies every entry, as {@code captureMdcAttributes=*} did.
+ */
+public final class MdcAttributesLogRecordProcessor implements LogRecordProcessor {
+
+    private final String[] names;
+    private final AttributeKey<String>[] keys;
+    private final boolean captureAll;
+    private final Map<String, AttributeKey<String>> keysByName = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public MdcAttributesLogRecordProcessor(List<String> mdcKeys) {
+        this.captureAll = mdcKeys.contains("*");
+        this.names = captureAll ? new String[0] : mdcKeys.toArray(new String[0]);
+        this.keys = (AttributeKey<String>[]) new AttributeKey<?>[names.length];
+        for (int i = 0; i < names.length; i++) {
+            keys[i] = AttributeKey.stringKey(names[i]);
+        }
+    }
+
+    @Override
+    public void onEmit(Context context, ReadWriteLogRecord logRecord) {
+        MDCAdapter mdc = MDC.getMDCAdapter();
+        if (captureAll) {
+            // Logback hands out its cached read-only view, other adapters a copy
+            Map<String, String> entries = mdc instanceof LogbackMDCAdapter
+                    ? ((LogbackMDCAdapter) mdc).getPropertyMap()
+                    : mdc.getCopyOfContextMap();
+            if (entries != null) {
+                entries.forEach((name, value) ->
+                        logRecord.setAttribute(keysByName.computeIfAbsent(name, AttributeKey::stringKey), value));
+            }
+            return;
+        }
+        for (int i = 0; i < names.length; i++) {
+            String value = mdc.get(names[i]);
+            if (value != null) {
+                logRecord.setAttribute(keys[i], value);
+            }
+        }
+    }
+
+    /** MDC keys copied onto log records; empty when capturing everything. */
+    public List<String> getMdcKeys() {
+        return List.of(names);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.demo.telemetry;
+
+import io.opentelemetry.sdk.common.Clock;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Wall clock time read from a field that a background ticker updates every millisecond, together with the
+ * local date and time of the current second formatted once per second, as {@code yyyy-MM-dd HH:mm:ss} for log
+ * lines and {@code yyyy-MM-ddTHH:mm:ss} for responses. Callers append the milliseconds themselves, so reading
+ * or formatting the time allocates nothing and does no calendar arithmetic.
+ * <p>
+ * Times lag the system clock by up to a tick. The {@link #shared()} clock serves the console encoder, the OTel
+ * log records and the controllers; Logback creates it before Spring starts, hence a static instance.
+ */
+public final class CachedClock implements AutoCloseable {
+
+    /** Length of {@code yyyy-MM-ddTHH:mm:ss.SSS}, with room for years beyond four digits. */
+    public static final int ISO_TIMESTAMP_MAX_LENGTH = 32;
+
+    private static final DateTimeFormatter LOG_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter ISO_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final ZoneRules zoneRules;
+    private final long tickNanos;
+    private final Thread ticker;
+    private final Clock otelClock = new OtelClock();
+    private volatile Tick tick;
+    // The last second formatted outside the ticker, for a backlog of events more than a second old
+    private volatile Second lastLookedUp;
+    private volatile boolean running = true;
+
+    public CachedClock(long tickMillis, ZoneId zone) {
+        this.zoneRules = zone.getRules();
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        long now = System.currentTimeMillis();
+        Second second = format(Math.floorDiv(now, 1000));
+        this.tick = new Tick(now, second, second);
+        this.lastLookedUp = second;
+        this.ticker = new Thread(this::tickLoop, "cached-clock-ticker");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /** The process-wide clock, ticking every millisecond in the JVM's default time zone. */
+    public static CachedClock shared() {
+        return Shared.INSTANCE;
+    }
+
+    /** Milliseconds since the epoch, as of the last tick. */
+    public long currentTimeMillis() {
+        return tick.epochMillis;
+    }
+
+    /** This clock for the OTel SDK, e.g. the observed timestamps of log records. */
+    public Clock otelClock() {
+        return otelClock;
+    }
+
+    /** Appends {@code epochMillis} as {@code yyyy-MM-dd HH:mm:ss.SSS}, the timestamp of console log lines. */
+    public void appendLogTimestamp(long epochMillis, StringBuilder out) {
+        out.append(secondOf(Math.floorDiv(epochMillis, 1000)).logPrefix).append('.');
+        int millis = Math.floorMod(epochMillis, 1000);
+        out.append((char) ('0' + millis / 100)).append((char) ('0' + millis / 10 % 10))
+                .append((char) ('0' + millis % 10));
+    }
+
+    /**
+     * Puts the current time as {@code yyyy-MM-ddTHH:mm:ss.SSS} into {@code buffer}, which needs room for
+     * {@link #ISO_TIMESTAMP_MAX_LENGTH} bytes from {@code position}, and returns the position after it.
+     */
+    public int putIsoTimestamp(byte[] buffer, int position) {
+        Tick current = tick;
+        byte[] prefix = current.second.isoPrefix;
+        System.arraycopy(prefix, 0, buffer, position, prefix.length);
+        position += prefix.length;
+        int millis = Math.floorMod(current.epochMillis, 1000);
+        buffer[position++] = '.';
+        buffer[position++] = (byte) ('0' + millis / 100);
+        buffer[position++] = (byte) ('0' + millis / 10 % 10);
+        buffer[position++] = (byte) ('0' + millis % 10);
+        return position;
+    }
+
+    /** The current time as {@code yyyy-MM-ddTHH:mm:ss.SSS}. */
+    public String isoTimestamp() {
+        byte[] buffer = new byte[ISO_TIMESTAMP_MAX_LENGTH];
+        return new String(buffer, 0, putIsoTimestamp(buffer, 0), StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+        try {
+            ticker.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void tickLoop() {
+        while (running) {
+            LockSupport.parkNanos(tickNanos);
+            advance(System.currentTimeMillis());
+        }
+    }
+
+    // Only the ticker writes the tick; the seconds are formatted as the clock crosses into them
+    private void advance(long now) {
+        Tick current = tick;
+        if (now == current.epochMillis) {
+            return;
+        }
+        long epochSecond = Math.floorDiv(now, 1000);
+        if (epochSecond == current.second.epochSecond) {
+            tick = new Tick(now, current.second, current.previousSecond);
+        } else {
+            tick = new Tick(now, format(epochSecond), current.second);
+        }
+    }
+
+    // Log events are formatted after they happened, by the async console writer: usually within the current or
+    // previous second, which the tick keeps, and otherwise in a backlog, where consecutive events share a second
+    private Second secondOf(long epochSecond) {
+        Tick current = tick;
+        if (current.second.epochSecond == epochSecond) {
+            return current.second;
+        }
+        if (current.previousSecond.epochSecond == epochSecond) {
+            return current.previousSecond;
+        }
+        Second last = lastLookedUp;
+        if (last.epochSecond == epochSecond) {
+            return last;
+        }
+        Second second = format(epochSecond);
+        lastLookedUp = second;
+        return second;
+    }
+
+    private Second format(long epochSecond) {
+        LocalDateTime local = LocalDateTime.ofEpochSecond(epochSecond, 0,
+                zoneRules.getOffset(Instant.ofEpochSecond(epochSecond)));
+        return new Second(epochSecond, LOG_FORMAT.format(local),
+                ISO_FORMAT.format(local).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static final class Shared {
+
+        static final CachedClock INSTANCE = new CachedClock(1, ZoneId.systemDefault());
+    }
+
+    private static final class Tick {
+
+        final long epochMillis;
+        final Second second;
+        final Second previousSecond;
+
+        Tick(long epochMillis, Second second, Second previousSecond) {
+            this.epochMillis = epochMillis;
+            this.second = second;
+            this.previousSecond = previousSecond;
+        }
+    }
+
+    private static final class Second {
+
+        final long epochSecond;
+        final String logPrefix;
+        final byte[] isoPrefix;
+
+        Second(long epochSecond, String logPrefix, byte[] isoPrefix) {
+            this.epochSecond = epochSecond;
+            this.logPrefix = logPrefix;
+            this.isoPrefix = isoPrefix;
+        }
+    }
+
+    private final class OtelClock implements Clock {
+
+        @Override
+        public long now() {
+            return TimeUnit.MILLISECONDS.toNanos(tick.epochMillis);
+        }
+
+        // Durations keep the full resolution
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    }
+}
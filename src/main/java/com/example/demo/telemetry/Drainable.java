@@ -0,0 +1,26 @@
+package com.example.demo.telemetry;
+
+import java.util.function.Consumer;
+
+/**
+ * A buffer that a single exporter thread drains into export batches.
+ */
+public interface Drainable<E> {
+
+    /**
+     * Hands up to {@code limit} buffered elements to {@code consumer}. Only called from the exporter thread.
+     *
+     * @return the number of elements drained
+     */
+    int drain(Consumer<? super E> consumer, int limit);
+
+    /**
+     * Approximate number of buffered elements.
+     */
+    int size();
+
+    /**
+     * Maximum number of elements the buffer can hold.
+     */
+    int capacity();
+}
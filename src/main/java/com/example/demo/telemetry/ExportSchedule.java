@@ -0,0 +1,183 @@
+package com.example.demo.telemetry;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how many items an exporter thread collects per batch and how long it holds a partial batch.
+ * The exporter thread reports every export cycle back through {@link #update}; all other methods may be
+ * read from any thread.
+ */
+public interface ExportSchedule {
+
+    /** Export as soon as this many items are batched. */
+    int batchSize();
+
+    /** Export a partial batch once it has been held this long. */
+    long delayNanos();
+
+    /** Upper bound of {@link #batchSize()}; used to size the batch and to drain on flush and shutdown. */
+    int maxBatchSize();
+
+    /**
+     * Called by the exporter thread after each export cycle, including cycles with nothing to export.
+     *
+     * @param elapsedNanos  time since the previous call
+     * @param drained       items taken from the buffer since the previous call
+     * @param queued        items still buffered
+     * @param capacity      buffer capacity
+     * @param exported      size of the batch just exported, 0 if nothing was exported
+     * @param latencyNanos  duration of that export
+     */
+    void update(long elapsedNanos, int drained, int queued, int capacity, int exported, long latencyNanos);
+
+    static ExportSchedule fixed(int batchSize, Duration delay) {
+        return new Fixed(batchSize, delay);
+    }
+
+    /** Constant batch size and delay, like the SDK batch processors. */
+    final class Fixed implements ExportSchedule {
+
+        private final int batchSize;
+        private final long delayNanos;
+
+        public Fixed(int batchSize, Duration delay) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("batchSize must be positive");
+            }
+            this.batchSize = batchSize;
+            this.delayNanos = Objects.requireNonNull(delay, "delay").toNanos();
+        }
+
+        @Override
+        public int batchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public long delayNanos() {
+            return delayNanos;
+        }
+
+        @Override
+        public int maxBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public void update(long elapsedNanos, int drained, int queued, int capacity, int exported,
+                           long latencyNanos) {
+        }
+    }
+
+    /**
+     * Tunes batch size and delay, within bounds, from the observed arrival rate, export latency and buffer
+     * depth:
+     * <ul>
+     *   <li>The batch is sized so one export carries what arrives during two export round trips. A
+     *   serialized exporter then keeps up with twice the current rate, and peaks are sent in few large
+     *   requests instead of many small ones.</li>
+     *   <li>A partial batch is held until the target batch would be full, but never longer than those two
+     *   round trips: at low traffic a longer wait would delay data without saving requests worth having,
+     *   so idle services ship data within a few multiples of the minimum delay.</li>
+     *   <li>Once the buffer is half full the exporter is falling behind, so it switches to maximum batches
+     *   at the minimum delay until the backlog is gone.</li>
+     * </ul>
+     * Rates and latencies are exponentially weighted moving averages.
+     */
+    final class Adaptive implements ExportSchedule {
+
+        private static final double ALPHA = 0.3;
+        private static final double HEADROOM = 2.0;
+        private static final double BACKLOG_THRESHOLD = 0.5;
+
+        private final int minBatchSize;
+        private final int maxBatchSize;
+        private final long minDelayNanos;
+        private final long maxDelayNanos;
+
+        // Only written by the exporter thread
+        private double arrivalsPerNano;
+        private double exportLatencyNanos;
+        private int lastQueued;
+
+        private volatile int batchSize;
+        private volatile long delayNanos;
+
+        public Adaptive(int minBatchSize, int maxBatchSize, Duration minDelay, Duration maxDelay) {
+            if (minBatchSize <= 0 || maxBatchSize < minBatchSize) {
+                throw new IllegalArgumentException(
+                        "batch size bounds must satisfy 0 < min <= max: " + minBatchSize + ", " + maxBatchSize);
+            }
+            if (minDelay.isNegative() || maxDelay.compareTo(minDelay) < 0) {
+                throw new IllegalArgumentException(
+                        "delay bounds must satisfy 0 <= min <= max: " + minDelay + ", " + maxDelay);
+            }
+            this.minBatchSize = minBatchSize;
+            this.maxBatchSize = maxBatchSize;
+            this.minDelayNanos = minDelay.toNanos();
+            this.maxDelayNanos = maxDelay.toNanos();
+            // Start fresh: small batches, shipped quickly, until there is traffic to measure
+            this.batchSize = minBatchSize;
+            this.delayNanos = minDelayNanos;
+        }
+
+        @Override
+        public int batchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public long delayNanos() {
+            return delayNanos;
+        }
+
+        @Override
+        public int maxBatchSize() {
+            return maxBatchSize;
+        }
+
+        @Override
+        public void update(long elapsedNanos, int drained, int queued, int capacity, int exported,
+                           long latencyNanos) {
+            if (elapsedNanos > 0) {
+                // Backlog growth counts as arrivals too, or a saturated exporter would underestimate the rate
+                long arrivals = Math.max(0, drained + (long) queued - lastQueued);
+                arrivalsPerNano += ALPHA * ((double) arrivals / elapsedNanos - arrivalsPerNano);
+            }
+            lastQueued = queued;
+            if (exported > 0) {
+                exportLatencyNanos = exportLatencyNanos == 0
+                        ? latencyNanos
+                        : exportLatencyNanos + ALPHA * (latencyNanos - exportLatencyNanos);
+            }
+
+            if (queued >= capacity * BACKLOG_THRESHOLD) {
+                batchSize = maxBatchSize;
+                delayNanos = minDelayNanos;
+                return;
+            }
+
+            double cycleNanos = Math.max(exportLatencyNanos, minDelayNanos) * HEADROOM;
+            int targetBatch = (int) clamp(arrivalsPerNano * cycleNanos, minBatchSize, maxBatchSize);
+
+            double fillNanos = arrivalsPerNano > 0 ? targetBatch / arrivalsPerNano : Double.MAX_VALUE;
+
+            batchSize = targetBatch;
+            delayNanos = (long) clamp(Math.min(fillNanos, cycleNanos), minDelayNanos, maxDelayNanos);
+        }
+
+        @Override
+        public String toString() {
+            return "Adaptive{batchSize=" + batchSize + " [" + minBatchSize + ".." + maxBatchSize + "]"
+                    + ", delay=" + TimeUnit.NANOSECONDS.toMillis(delayNanos) + "ms ["
+                    + TimeUnit.NANOSECONDS.toMillis(minDelayNanos) + ".."
+                    + TimeUnit.NANOSECONDS.toMillis(maxDelayNanos) + "ms]}";
+        }
+
+        private static double clamp(double value, double min, double max) {
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.demo.telemetry;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Single exporter thread shared by the custom processors: drains a {@link Drainable} buffer into batches
+ * and exports a batch when it is full or when the schedule delay has elapsed, whichever comes first. Batch
+ * size and delay come from an {@link ExportSchedule}, which is fed back after every export cycle. Exports
+ * are serialized, like in the SDK batch processors.
+ */
+final class ExportWorker<T> implements Runnable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportWorker.class);
+
+    private final Drainable<T> source;
+    private final Function<Collection<T>, CompletableResultCode> exportFunction;
+    private final Supplier<CompletableResultCode> exporterShutdown;
+    private final ExportSchedule schedule;
+    private final long exporterTimeoutNanos;
+    private final WaitStrategy waitStrategy;
+
+    private final List<T> batch;
+    private final Consumer<T> batchAppender;
+    private final BooleanSupplier workAvailable;
+    private final Thread thread;
+
+    private final AtomicReference<CompletableResultCode> flushRequested = new AtomicReference<>();
+    private final CompletableResultCode shutdownResult = new CompletableResultCode();
+    private volatile boolean continueWork = true;
+    private volatile boolean stopped;
+
+    private final LongAdder exportedCount = new LongAdder();
+    private final LongAdder failedExportCount = new LongAdder();
+
+    ExportWorker(String threadName,
+                 Drainable<T> source,
+                 Function<Collection<T>, CompletableResultCode> exportFunction,
+                 Supplier<CompletableResultCode> exporterShutdown,
+                 ExportSchedule schedule,
+                 long exporterTimeoutNanos,
+                 WaitStrategy waitStrategy) {
+        this.source = source;
+        this.exportFunction = exportFunction;
+        this.exporterShutdown = exporterShutdown;
+        this.schedule = schedule;
+        this.exporterTimeoutNanos = exporterTimeoutNanos;
+        this.waitStrategy = waitStrategy;
+        this.batch = new ArrayList<>(schedule.maxBatchSize());
+        this.batchAppender = batch::add;
+        this.workAvailable = () -> source.size() > 0;
+        this.thread = new Thread(this, threadName);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Wakes the exporter thread if the wait strategy parked it. Called by producers after every publish,
+     * so it must stay a no-op or a single volatile read in the common case.
+     */
+    void signal() {
+        waitStrategy.signal(thread);
+    }
+
+    @Override
+    public void run() {
+        long lastCycleNanos = System.nanoTime();
+        long nextExportNanos = lastCycleNanos + schedule.delayNanos();
+        int drainedInCycle = 0;
+        int idleCount = 0;
+        while (continueWork) {
+            int batchSize = schedule.batchSize();
+            int drained = source.drain(batchAppender, Math.max(0, batchSize - batch.size()));
+            drainedInCycle += drained;
+
+            CompletableResultCode flush = flushRequested.get();
+            if (flush != null) {
+                boolean exported = exportAll();
+                flushRequested.set(null);
+                complete(flush, exported);
+                nextExportNanos = System.nanoTime() + schedule.delayNanos();
+                continue;
+            }
+
+            long now = System.nanoTime();
+            if (batch.size() >= batchSize || now - nextExportNanos >= 0) {
+                int exported = batch.size();
+                exportCurrentBatch();
+                long exportedAt = System.nanoTime();
+                schedule.update(exportedAt - lastCycleNanos, drainedInCycle, source.size(), source.capacity(),
+                        exported, exportedAt - now);
+                lastCycleNanos = exportedAt;
+                drainedInCycle = 0;
+                nextExportNanos = exportedAt + schedule.delayNanos();
+                idleCount = 0;
+            } else if (drained == 0) {
+                waitStrategy.idle(idleCount++, nextExportNanos, workAvailable);
+            } else {
+                idleCount = 0;
+            }
+        }
+
+        boolean exported = exportAll();
+        // A flush requested while shutting down is answered here; forceFlush answers the ones that come after
+        stopped = true;
+        CompletableResultCode flush = flushRequested.getAndSet(null);
+        if (flush != null) {
+            complete(flush, exported);
+        }
+        CompletableResultCode exporterResult = exporterShutdown.get();
+        exporterResult.whenComplete(() -> {
+            if (exporterResult.isSuccess()) {
+                shutdownResult.succeed();
+            } else {
+                shutdownResult.fail();
+            }
+        });
+    }
+
+    CompletableResultCode forceFlush() {
+        if (!continueWork) {
+            return flushedOnShutdown();
+        }
+        CompletableResultCode flush = new CompletableResultCode();
+        CompletableResultCode pending = flushRequested.compareAndExchange(null, flush);
+        if (pending != null) {
+            return pending;
+        }
+        LockSupport.unpark(thread);
+        // The loop may have exited in the meantime; if it did not take the request, nothing else will
+        if (stopped && flushRequested.compareAndSet(flush, null)) {
+            return flushedOnShutdown();
+        }
+        return flush;
+    }
+
+    CompletableResultCode shutdown() {
+        continueWork = false;
+        LockSupport.unpark(thread);
+        return shutdownResult;
+    }
+
+    long getExportedCount() {
+        return exportedCount.sum();
+    }
+
+    long getFailedExportCount() {
+        return failedExportCount.sum();
+    }
+
+    ExportSchedule getSchedule() {
+        return schedule;
+    }
+
+    // Exports everything buffered at the time of the call, in full batches; true if every export succeeded
+    private boolean exportAll() {
+        int remaining = source.size();
+        boolean success = exportCurrentBatch();
+        while (remaining > 0) {
+            int drained = source.drain(batchAppender, schedule.maxBatchSize());
+            if (drained == 0) {
+                break;
+            }
+            remaining -= drained;
+            success &= exportCurrentBatch();
+        }
+        return success;
+    }
+
+    private boolean exportCurrentBatch() {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            CompletableResultCode result = exportFunction.apply(Collections.unmodifiableList(batch));
+            result.join(exporterTimeoutNanos, TimeUnit.NANOSECONDS);
+            if (result.isSuccess()) {
+                exportedCount.add(batch.size());
+                return true;
+            }
+            failedExportCount.increment();
+            logger.debug("Exporter failed to export {} items", batch.size());
+            return false;
+        } catch (RuntimeException e) {
+            failedExportCount.increment();
+            logger.warn("Exporter threw an exception", e);
+            return false;
+        } finally {
+            batch.clear();
+        }
+    }
+
+    // After shutdown nothing is exported any more: the flush succeeds if nothing was left behind
+    private CompletableResultCode flushedOnShutdown() {
+        return source.size() == 0 ? CompletableResultCode.ofSuccess() : CompletableResultCode.ofFailure();
+    }
+
+    private static void complete(CompletableResultCode result, boolean success) {
+        if (success) {
+            result.succeed();
+        } else {
+            result.fail();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.demo.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded, lock-free multi-producer/single-consumer ring buffer.
+ * <p>
+ * Slots are preallocated and the capacity is a power of two, so a sequence maps to its slot with a mask.
+ * Producers claim a sequence with a CAS on the producer cursor and then publish the slot by writing the
+ * sequence into the availability array; the single consumer only reads slots whose sequence has been
+ * published, so a slow producer never exposes a half-written slot. {@link #offer} never blocks: when the
+ * buffer is full the element is rejected and the caller decides what to do with it.
+ */
+public class MpscRingBuffer<E> implements Drainable<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final Object[] slots;
+    private final AtomicLongArray published;
+
+    // Next sequence to be claimed by a producer
+    private final AtomicLong producerCursor = new PaddedAtomicLong();
+    // Cached consumerCursor + capacity, so producers rarely read the consumer's cache line
+    private final AtomicLong producerLimit = new PaddedAtomicLong();
+    // Next sequence to be read by the consumer
+    private final AtomicLong consumerCursor = new PaddedAtomicLong();
+
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2 || requestedCapacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 2 and 2^30");
+        }
+        this.capacity = nextPowerOfTwo(requestedCapacity);
+        this.mask = capacity - 1;
+        this.slots = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.producerLimit.set(capacity);
+    }
+
+    /**
+     * Claims a slot and publishes {@code element} into it. Safe to call from any thread.
+     *
+     * @return {@code false} if the buffer is full and the element was not enqueued
+     */
+    public boolean offer(E element) {
+        long sequence;
+        do {
+            sequence = producerCursor.get();
+            if (sequence >= producerLimit.get()) {
+                long limit = consumerCursor.get() + capacity;
+                if (sequence >= limit) {
+                    return false;
+                }
+                producerLimit.lazySet(limit);
+            }
+        } while (!producerCursor.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        slots[index] = element;
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * Hands up to {@code limit} published elements to {@code consumer}, in sequence order. Must only be
+     * called from the single consumer thread.
+     *
+     * @return the number of elements drained
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> consumer, int limit) {
+        long sequence = consumerCursor.get();
+        int drained = 0;
+        while (drained < limit) {
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence) {
+                // Not claimed yet, or claimed but not yet published by its producer
+                break;
+            }
+            E element = (E) slots[index];
+            slots[index] = null;
+            sequence++;
+            drained++;
+            consumerCursor.lazySet(sequence);
+            consumer.accept(element);
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        long size = producerCursor.get() - consumerCursor.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    // Keeps each cursor on its own cache line so producers and the consumer do not false-share
+    @SuppressWarnings({"serial", "unused"})
+    private static final class PaddedAtomicLong extends AtomicLong {
+        private long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    static int nextPowerOfTwo(int value) {
+        int highestOneBit = Integer.highestOneBit(value);
+        return highestOneBit == value ? value : highestOneBit << 1;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.telemetry;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A reusable scratch object per platform thread. Virtual threads get a new object on every call instead: a
+ * virtual thread serves one request and is gone, so a thread-local cache would allocate the object and a
+ * thread-local map for it per request, and never reuse either. Objects handed out must not escape the call
+ * that got them.
+ * <p>
+ * Runs on Java 17, where every thread is a platform thread; {@code Thread.isVirtual()} is looked up once.
+ */
+public final class PlatformThreadCache<T> {
+
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    private final Supplier<T> factory;
+    private final ThreadLocal<T> cache;
+
+    public PlatformThreadCache(Supplier<T> factory) {
+        this.factory = Objects.requireNonNull(factory, "factory");
+        this.cache = ThreadLocal.withInitial(factory);
+    }
+
+    /** The calling platform thread's object, or a new one on a virtual thread. */
+    public T get() {
+        return isVirtual(Thread.currentThread()) ? factory.get() : cache.get();
+    }
+
+    /** Whether {@code thread} is a virtual thread; always false before Java 21. */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Thread.isVirtual() failed", e);
+        }
+    }
+
+    private static MethodHandle isVirtualHandle() {
+        try {
+            return MethodHandles.publicLookup()
+                    .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
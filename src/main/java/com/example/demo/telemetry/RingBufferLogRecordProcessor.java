@@ -0,0 +1,152 @@
+package com.example.demo.telemetry;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drop-in alternative to {@code BatchLogRecordProcessor} that buffers records in a preallocated
+ * {@link MpscRingBuffer} instead of a shared blocking queue. Request threads only pay a CAS to claim a
+ * slot; when the buffer is full the record is dropped and counted, never blocking the caller.
+ */
+public final class RingBufferLogRecordProcessor implements LogRecordProcessor {
+
+    private final MpscRingBuffer<LogRecordData> ringBuffer;
+    private final ExportWorker<LogRecordData> worker;
+    private final AtomicBoolean isShutdown = new AtomicBoolean();
+    private final LongAdder droppedLogRecords = new LongAdder();
+
+    private RingBufferLogRecordProcessor(Builder builder) {
+        this.ringBuffer = new MpscRingBuffer<>(builder.capacity);
+        this.worker = new ExportWorker<>(
+                "ring-buffer-log-exporter",
+                ringBuffer,
+                builder.logRecordExporter::export,
+                builder.logRecordExporter::shutdown,
+                builder.exportSchedule,
+                builder.exporterTimeout.toNanos(),
+                builder.waitStrategy);
+        this.worker.start();
+    }
+
+    public static Builder builder(LogRecordExporter logRecordExporter) {
+        return new Builder(logRecordExporter);
+    }
+
+    @Override
+    public void onEmit(Context context, ReadWriteLogRecord logRecord) {
+        if (!ringBuffer.offer(logRecord.toLogRecordData())) {
+            droppedLogRecords.increment();
+            return;
+        }
+        worker.signal();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return worker.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        if (isShutdown.getAndSet(true)) {
+            return CompletableResultCode.ofSuccess();
+        }
+        return worker.shutdown();
+    }
+
+    /** Records rejected because the ring buffer was full. */
+    public long getDroppedLogRecords() {
+        return droppedLogRecords.sum();
+    }
+
+    /** Records successfully handed to the exporter. */
+    public long getExportedLogRecords() {
+        return worker.getExportedCount();
+    }
+
+    public int getQueueSize() {
+        return ringBuffer.size();
+    }
+
+    public int getCapacity() {
+        return ringBuffer.capacity();
+    }
+
+    @Override
+    public String toString() {
+        return "RingBufferLogRecordProcessor{capacity=" + ringBuffer.capacity()
+                + ", exportSchedule=" + worker.getSchedule() + '}';
+    }
+
+    public static final class Builder {
+
+        private final LogRecordExporter logRecordExporter;
+        private int capacity = 8192;
+        private int maxExportBatchSize = 512;
+        private Duration scheduleDelay = Duration.ofSeconds(1);
+        private ExportSchedule exportSchedule;
+        private Duration exporterTimeout = Duration.ofSeconds(30);
+        private WaitStrategy waitStrategy = new WaitStrategy.Sleeping();
+
+        private Builder(LogRecordExporter logRecordExporter) {
+            this.logRecordExporter = Objects.requireNonNull(logRecordExporter, "logRecordExporter");
+        }
+
+        /** Number of slots; rounded up to the next power of two. */
+        public Builder setCapacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder setMaxExportBatchSize(int maxExportBatchSize) {
+            if (maxExportBatchSize <= 0) {
+                throw new IllegalArgumentException("maxExportBatchSize must be positive");
+            }
+            this.maxExportBatchSize = maxExportBatchSize;
+            return this;
+        }
+
+        public Builder setScheduleDelay(Duration scheduleDelay) {
+            this.scheduleDelay = Objects.requireNonNull(scheduleDelay, "scheduleDelay");
+            return this;
+        }
+
+        /**
+         * Replaces the fixed {@code maxExportBatchSize} and {@code scheduleDelay} with a schedule, for example
+         * an {@link ExportSchedule.Adaptive} one. Each processor needs its own schedule instance.
+         */
+        public Builder setExportSchedule(ExportSchedule exportSchedule) {
+            this.exportSchedule = Objects.requireNonNull(exportSchedule, "exportSchedule");
+            return this;
+        }
+
+        public Builder setExporterTimeout(Duration exporterTimeout) {
+            this.exporterTimeout = Objects.requireNonNull(exporterTimeout, "exporterTimeout");
+            return this;
+        }
+
+        public Builder setWaitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = Objects.requireNonNull(waitStrategy, "waitStrategy");
+            return this;
+        }
+
+        public RingBufferLogRecordProcessor build() {
+            if (exportSchedule == null) {
+                exportSchedule = ExportSchedule.fixed(maxExportBatchSize, scheduleDelay);
+            }
+            if (exportSchedule.maxBatchSize() > capacity) {
+                throw new IllegalArgumentException("maxExportBatchSize must not exceed capacity");
+            }
+            return new RingBufferLogRecordProcessor(this);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.telemetry;
+
+import java.util.function.Consumer;
+
+/**
+ * A set of {@link MpscRingBuffer} stripes that producers pick by their thread's identity hash, so request
+ * threads running on different cores mostly claim slots on different cache lines. A single consumer
+ * drains the stripes round-robin into one stream.
+ */
+public class StripedRingBuffer<E> implements Drainable<E> {
+
+    private final MpscRingBuffer<E>[] stripes;
+    private final int stripeMask;
+    // Consumer-only: stripe the next drain starts from, so no stripe is starved by a busy neighbour
+    private int nextStripe;
+
+    @SuppressWarnings("unchecked")
+    public StripedRingBuffer(int requestedStripes, int stripeCapacity) {
+        if (requestedStripes < 1) {
+            throw new IllegalArgumentException("stripes must be at least 1");
+        }
+        int stripeCount = MpscRingBuffer.nextPowerOfTwo(requestedStripes);
+        this.stripes = (MpscRingBuffer<E>[]) new MpscRingBuffer<?>[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new MpscRingBuffer<>(stripeCapacity);
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Enqueues into the calling thread's stripe.
+     *
+     * @return {@code false} if that stripe is full
+     */
+    public boolean offer(E element) {
+        return stripes[stripeIndex(System.identityHashCode(Thread.currentThread()))].offer(element);
+    }
+
+    @Override
+    public int drain(Consumer<? super E> consumer, int limit) {
+        int drained = 0;
+        int start = nextStripe;
+        for (int i = 0; i <= stripeMask && drained < limit; i++) {
+            drained += stripes[(start + i) & stripeMask].drain(consumer, limit - drained);
+        }
+        nextStripe = (start + 1) & stripeMask;
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (MpscRingBuffer<E> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    @Override
+    public int capacity() {
+        return stripes.length * stripes[0].capacity();
+    }
+
+    private int stripeIndex(int threadHash) {
+        // The first call on a thread generates its identity hash and stores it in the object header; later calls
+        // read it back. Fibonacci hashing mixes its bits into the stripe index. Virtual threads are new per
+        // request, so they land on random stripes rather than keeping one each; the spread is just as even
+        return (int) ((threadHash * 0x9E3779B97F4A7C15L) >>> 32) & stripeMask;
+    }
+}
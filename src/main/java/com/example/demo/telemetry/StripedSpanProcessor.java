@@ -0,0 +1,178 @@
+package com.example.demo.telemetry;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Alternative to {@code BatchSpanProcessor} that shards ended spans across per-core {@link StripedRingBuffer}
+ * stripes instead of one shared queue. Threads are mapped to stripes by their identity hash; a single worker
+ * merges all stripes into export batches. Spans are dropped and counted when their stripe is full.
+ */
+public final class StripedSpanProcessor implements SpanProcessor {
+
+    private final StripedRingBuffer<SpanData> stripedBuffer;
+    private final ExportWorker<SpanData> worker;
+    private final AtomicBoolean isShutdown = new AtomicBoolean();
+    private final LongAdder droppedSpans = new LongAdder();
+
+    private StripedSpanProcessor(Builder builder) {
+        this.stripedBuffer = new StripedRingBuffer<>(builder.stripes, builder.stripeCapacity);
+        this.worker = new ExportWorker<>(
+                "striped-span-exporter",
+                stripedBuffer,
+                builder.spanExporter::export,
+                builder.spanExporter::shutdown,
+                builder.exportSchedule,
+                builder.exporterTimeout.toNanos(),
+                builder.waitStrategy);
+        this.worker.start();
+    }
+
+    public static Builder builder(SpanExporter spanExporter) {
+        return new Builder(spanExporter);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (!span.getSpanContext().isSampled()) {
+            return;
+        }
+        if (!stripedBuffer.offer(span.toSpanData())) {
+            droppedSpans.increment();
+            return;
+        }
+        worker.signal();
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return worker.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        if (isShutdown.getAndSet(true)) {
+            return CompletableResultCode.ofSuccess();
+        }
+        return worker.shutdown();
+    }
+
+    /** Spans rejected because their stripe was full. */
+    public long getDroppedSpans() {
+        return droppedSpans.sum();
+    }
+
+    /** Spans successfully handed to the exporter. */
+    public long getExportedSpans() {
+        return worker.getExportedCount();
+    }
+
+    public int getQueueSize() {
+        return stripedBuffer.size();
+    }
+
+    public int getCapacity() {
+        return stripedBuffer.capacity();
+    }
+
+    public int getStripeCount() {
+        return stripedBuffer.stripeCount();
+    }
+
+    @Override
+    public String toString() {
+        return "StripedSpanProcessor{stripes=" + stripedBuffer.stripeCount()
+                + ", capacity=" + stripedBuffer.capacity() + ", exportSchedule=" + worker.getSchedule() + '}';
+    }
+
+    public static final class Builder {
+
+        private final SpanExporter spanExporter;
+        private int stripes = Runtime.getRuntime().availableProcessors();
+        private int stripeCapacity = 2048;
+        private int maxExportBatchSize = 512;
+        private Duration scheduleDelay = Duration.ofSeconds(5);
+        private ExportSchedule exportSchedule;
+        private Duration exporterTimeout = Duration.ofSeconds(30);
+        private WaitStrategy waitStrategy = new WaitStrategy.Sleeping();
+
+        private Builder(SpanExporter spanExporter) {
+            this.spanExporter = Objects.requireNonNull(spanExporter, "spanExporter");
+        }
+
+        /** Number of stripes, rounded up to a power of two. Defaults to the number of available processors. */
+        public Builder setStripes(int stripes) {
+            this.stripes = stripes;
+            return this;
+        }
+
+        /** Slots per stripe, rounded up to a power of two. */
+        public Builder setStripeCapacity(int stripeCapacity) {
+            this.stripeCapacity = stripeCapacity;
+            return this;
+        }
+
+        public Builder setMaxExportBatchSize(int maxExportBatchSize) {
+            if (maxExportBatchSize <= 0) {
+                throw new IllegalArgumentException("maxExportBatchSize must be positive");
+            }
+            this.maxExportBatchSize = maxExportBatchSize;
+            return this;
+        }
+
+        public Builder setScheduleDelay(Duration scheduleDelay) {
+            this.scheduleDelay = Objects.requireNonNull(scheduleDelay, "scheduleDelay");
+            return this;
+        }
+
+        /**
+         * Replaces the fixed {@code maxExportBatchSize} and {@code scheduleDelay} with a schedule, for example
+         * an {@link ExportSchedule.Adaptive} one. Each processor needs its own schedule instance.
+         */
+        public Builder setExportSchedule(ExportSchedule exportSchedule) {
+            this.exportSchedule = Objects.requireNonNull(exportSchedule, "exportSchedule");
+            return this;
+        }
+
+        public Builder setExporterTimeout(Duration exporterTimeout) {
+            this.exporterTimeout = Objects.requireNonNull(exporterTimeout, "exporterTimeout");
+            return this;
+        }
+
+        public Builder setWaitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = Objects.requireNonNull(waitStrategy, "waitStrategy");
+            return this;
+        }
+
+        public StripedSpanProcessor build() {
+            if (exportSchedule == null) {
+                exportSchedule = ExportSchedule.fixed(maxExportBatchSize, scheduleDelay);
+            }
+            return new StripedSpanProcessor(this);
+        }
+    }
+}
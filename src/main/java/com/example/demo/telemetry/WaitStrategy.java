@@ -0,0 +1,132 @@
+package com.example.demo.telemetry;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * How an exporter thread waits when its ring buffer is empty. Trades producer-side cost and idle CPU
+ * against how quickly the consumer notices new work.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Called by the consumer thread when a drain returned nothing.
+     *
+     * @param idleCount     number of consecutive empty drains, reset to 0 after any progress
+     * @param deadlineNanos {@link System#nanoTime()} by which the consumer must wake up regardless
+     * @param workAvailable whether the buffer has anything to drain, for strategies that check before parking
+     */
+    void idle(int idleCount, long deadlineNanos, BooleanSupplier workAvailable);
+
+    /**
+     * Called by producers after publishing, and on flush/shutdown requests. Must be cheap when the
+     * consumer is not waiting.
+     */
+    void signal(Thread consumer);
+
+    /**
+     * Resolves a strategy by its configuration name: {@code busy-spin}, {@code yielding},
+     * {@code sleeping} or {@code blocking}.
+     */
+    static WaitStrategy of(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "busy-spin":
+                return new BusySpin();
+            case "yielding":
+                return new Yielding();
+            case "sleeping":
+                return new Sleeping();
+            case "blocking":
+                return new Blocking();
+            default:
+                throw new IllegalArgumentException("Unknown wait strategy: " + name);
+        }
+    }
+
+    /** Spins on the buffer; lowest latency, burns a core. */
+    class BusySpin implements WaitStrategy {
+
+        @Override
+        public void idle(int idleCount, long deadlineNanos, BooleanSupplier workAvailable) {
+            Thread.onSpinWait();
+        }
+
+        @Override
+        public void signal(Thread consumer) {
+        }
+    }
+
+    /** Spins briefly, then yields the CPU between polls. */
+    class Yielding implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public void idle(int idleCount, long deadlineNanos, BooleanSupplier workAvailable) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+
+        @Override
+        public void signal(Thread consumer) {
+        }
+    }
+
+    /** Spins, yields, then parks with an exponential back-off capped at 1 ms. Producers never signal. */
+    class Sleeping implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 200;
+        private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        @Override
+        public void idle(int idleCount, long deadlineNanos, BooleanSupplier workAvailable) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (idleCount < YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                int shift = Math.min(idleCount - YIELD_TRIES, 10);
+                long parkNanos = Math.min(MAX_PARK_NANOS, 1_000L << shift);
+                LockSupport.parkNanos(Math.min(parkNanos, Math.max(0, deadlineNanos - System.nanoTime())));
+            }
+        }
+
+        @Override
+        public void signal(Thread consumer) {
+        }
+    }
+
+    /**
+     * Parks until signalled or the deadline passes. Lowest idle CPU; producers pay an unpark only when
+     * the consumer is actually parked.
+     */
+    class Blocking implements WaitStrategy {
+
+        private final AtomicBoolean waiting = new AtomicBoolean();
+
+        @Override
+        public void idle(int idleCount, long deadlineNanos, BooleanSupplier workAvailable) {
+            waiting.set(true);
+            // A producer that published before the flag was set saw no waiter and did not unpark: look again
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining > 0 && !workAvailable.getAsBoolean()) {
+                LockSupport.parkNanos(remaining);
+            }
+            waiting.set(false);
+        }
+
+        @Override
+        public void signal(Thread consumer) {
+            if (waiting.get() && waiting.compareAndSet(true, false)) {
+                LockSupport.unpark(consumer);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.telemetry.exporter;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Builds the log, span and metric exporters for the configured {@code otel.exporter.otlp.protocol}.
+ * <p>
+ * Every exporter sends through one shared {@link OtlpTransport}: for {@code http/protobuf} an
+ * {@link OtlpHttpTransport} whose keep-alive connection pool serves all signals, for {@code grpc} an
+ * {@link OtlpGrpcTransport} that multiplexes all signals over a single HTTP/2 channel. With spooling enabled
+ * the transport is wrapped in a {@link SpoolingTransport}.
+ */
+public final class OtlpExporterFactory {
+
+    public static final String PROTOCOL_GRPC = "grpc";
+    public static final String PROTOCOL_HTTP_PROTOBUF = "http/protobuf";
+    private static final int OKHTTP_MAX_REQUESTS_PER_HOST = 5;
+
+    private final String protocol;
+    private final OtlpTransport transport;
+
+    public OtlpExporterFactory(String endpoint, String protocol, TransportSettings settings) {
+        this(endpoint, protocol, settings, SpoolSettings.disabled());
+    }
+
+    public OtlpExporterFactory(String endpoint, String protocol, TransportSettings settings,
+                               SpoolSettings spoolSettings) {
+        this.protocol = protocol;
+        OtlpTransport networkTransport;
+        switch (protocol) {
+            case PROTOCOL_HTTP_PROTOBUF:
+                networkTransport = new OtlpHttpTransport(endpoint, settings.maxIdleConnections,
+                        settings.keepAlive, settings.timeout);
+                break;
+            case PROTOCOL_GRPC:
+                networkTransport = new OtlpGrpcTransport(endpoint, settings.maxConcurrentStreams,
+                        settings.keepAlive, settings.timeout);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported otel.exporter.otlp.protocol: " + protocol
+                        + " (expected " + PROTOCOL_GRPC + " or " + PROTOCOL_HTTP_PROTOBUF + ")");
+        }
+        this.transport = spoolSettings.enabled
+                ? new SpoolingTransport(networkTransport, spoolSettings.directory, spoolSettings.segmentSize,
+                        spoolSettings.maxDiskUsage, settings.timeout, maxInFlight(protocol, settings))
+                : networkTransport;
+    }
+
+    public LogRecordExporter createLogRecordExporter() {
+        return new OtlpTransportLogRecordExporter(transport);
+    }
+
+    public SpanExporter createSpanExporter() {
+        return new OtlpTransportSpanExporter(transport);
+    }
+
+    public MetricExporter createMetricExporter() {
+        return new OtlpTransportMetricExporter(transport);
+    }
+
+    /** The transport shared by all exporters, for signals that build their own exporter on top of it. */
+    public OtlpTransport getTransport() {
+        return transport;
+    }
+
+    public String getProtocol() {
+        return protocol;
+    }
+
+    /**
+     * Closes the shared transport. Call after the SDK, and with it every exporter, has been shut down.
+     */
+    public CompletableResultCode shutdown() {
+        return transport.shutdown();
+    }
+
+    // Requests the transport sends at once: a stream each on the gRPC channel, OkHttp's default per-host limit
+    private static int maxInFlight(String protocol, TransportSettings settings) {
+        return PROTOCOL_GRPC.equals(protocol) ? settings.maxConcurrentStreams : OKHTTP_MAX_REQUESTS_PER_HOST;
+    }
+
+    /**
+     * Connection settings for the shared transport. {@code maxIdleConnections} applies to OTLP/HTTP,
+     * {@code maxConcurrentStreams} to the gRPC channel.
+     */
+    public static final class TransportSettings {
+
+        private final int maxIdleConnections;
+        private final int maxConcurrentStreams;
+        private final Duration keepAlive;
+        private final Duration timeout;
+
+        public TransportSettings(int maxIdleConnections, int maxConcurrentStreams, Duration keepAlive,
+                                 Duration timeout) {
+            this.maxIdleConnections = maxIdleConnections;
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            this.keepAlive = keepAlive;
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Disk spooling settings; see {@link SpoolingTransport}.
+     */
+    public static final class SpoolSettings {
+
+        private final boolean enabled;
+        private final Path directory;
+        private final int segmentSize;
+        private final long maxDiskUsage;
+
+        public SpoolSettings(boolean enabled, Path directory, int segmentSize, long maxDiskUsage) {
+            this.enabled = enabled;
+            this.directory = directory;
+            this.segmentSize = segmentSize;
+            this.maxDiskUsage = maxDiskUsage;
+        }
+
+        public static SpoolSettings disabled() {
+            return new SpoolSettings(false, null, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.demo.telemetry.exporter;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OTLP/gRPC transport: one managed HTTP/2 channel to the collector that the exporters of every signal
+ * multiplex their export calls over, instead of each exporter opening its own connection.
+ * <p>
+ * Requests are framed as unary gRPC calls (5-byte length-prefixed message, {@code application/grpc}) and
+ * completed from the {@code grpc-status} trailer. The number of in-flight calls, and therefore HTTP/2
+ * streams on the shared connection, is capped by {@code maxConcurrentStreams}.
+ */
+public final class OtlpGrpcTransport implements OtlpTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtlpGrpcTransport.class);
+    private static final MediaType GRPC = MediaType.get("application/grpc");
+    private static final String GRPC_STATUS_OK = "0";
+
+    private final OkHttpClient client;
+    private final Map<OtlpSignal, String> signalUrls = new EnumMap<>(OtlpSignal.class);
+
+    public OtlpGrpcTransport(String endpoint, int maxConcurrentStreams, Duration keepAlive, Duration timeout) {
+        String baseUrl = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        for (OtlpSignal signal : OtlpSignal.values()) {
+            signalUrls.put(signal, baseUrl + signal.getGrpcPath());
+        }
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxConcurrentStreams);
+        dispatcher.setMaxRequestsPerHost(maxConcurrentStreams);
+
+        // Plaintext endpoints speak HTTP/2 directly (h2c), TLS endpoints negotiate it through ALPN
+        boolean plaintext = baseUrl.startsWith("http://");
+        this.client = new OkHttpClient.Builder()
+                .protocols(plaintext
+                        ? Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE)
+                        : Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(1, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .callTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public CompletableResultCode send(OtlpSignal signal, byte[] payload) {
+        CompletableResultCode result = new CompletableResultCode();
+        Request request = new Request.Builder()
+                .url(signalUrls.get(signal))
+                .header("te", "trailers")
+                .post(grpcMessage(payload))
+                .build();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    String grpcStatus = grpcStatus(response);
+                    if (response.isSuccessful() && GRPC_STATUS_OK.equals(grpcStatus)) {
+                        result.succeed();
+                    } else {
+                        logger.debug("OTLP {} export failed with HTTP status {}, grpc-status {}",
+                                signal, response.code(), grpcStatus);
+                        result.fail();
+                    }
+                } catch (IOException e) {
+                    logger.debug("OTLP {} export failed reading the response: {}", signal, e.getMessage());
+                    result.fail();
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                logger.debug("OTLP {} export failed: {}", signal, e.getMessage());
+                result.fail();
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        client.dispatcher().cancelAll();
+        client.dispatcher().executorService().shutdownNow();
+        client.connectionPool().evictAll();
+        return CompletableResultCode.ofSuccess();
+    }
+
+    // Uncompressed gRPC message framing (flag byte, 4-byte big-endian length, message), written without a copy
+    private static RequestBody grpcMessage(byte[] payload) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return GRPC;
+            }
+
+            @Override
+            public long contentLength() {
+                return payload.length + 5L;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                sink.writeByte(0);
+                sink.writeInt(payload.length);
+                sink.write(payload);
+            }
+        };
+    }
+
+    // Trailers-only responses carry grpc-status in the headers; otherwise it arrives after the body
+    private static String grpcStatus(Response response) throws IOException {
+        String status = response.header("grpc-status");
+        if (status != null) {
+            return status;
+        }
+        if (response.body() != null) {
+            response.body().bytes();
+        }
+        Headers trailers = response.trailers();
+        return trailers.get("grpc-status");
+    }
+}
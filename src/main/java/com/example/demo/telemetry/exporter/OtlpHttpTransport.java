@@ -0,0 +1,82 @@
+package com.example.demo.telemetry.exporter;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OTLP/HTTP ({@code http/protobuf}) transport backed by a single OkHttp client. All signals share its
+ * connection pool, so with keep-alive the log and span exporters reuse the same persistent connection(s)
+ * to the collector instead of handshaking per exporter.
+ */
+public final class OtlpHttpTransport implements OtlpTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtlpHttpTransport.class);
+    private static final MediaType PROTOBUF = MediaType.get("application/x-protobuf");
+
+    private final OkHttpClient client;
+    private final Map<OtlpSignal, String> signalUrls = new EnumMap<>(OtlpSignal.class);
+
+    public OtlpHttpTransport(String endpoint, int maxIdleConnections, Duration keepAlive, Duration timeout) {
+        String baseUrl = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+        for (OtlpSignal signal : OtlpSignal.values()) {
+            signalUrls.put(signal, baseUrl + signal.getHttpPath());
+        }
+        this.client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .callTimeout(timeout)
+                .retryOnConnectionFailure(true)
+                .build();
+    }
+
+    @Override
+    public CompletableResultCode send(OtlpSignal signal, byte[] payload) {
+        CompletableResultCode result = new CompletableResultCode();
+        Request request = new Request.Builder()
+                .url(signalUrls.get(signal))
+                .post(RequestBody.create(payload, PROTOBUF))
+                .build();
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    if (response.isSuccessful()) {
+                        result.succeed();
+                    } else {
+                        logger.debug("OTLP {} export failed with HTTP status {}", signal, response.code());
+                        result.fail();
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                logger.debug("OTLP {} export failed: {}", signal, e.getMessage());
+                result.fail();
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        client.dispatcher().cancelAll();
+        client.dispatcher().executorService().shutdownNow();
+        client.connectionPool().evictAll();
+        return CompletableResultCode.ofSuccess();
+    }
+}
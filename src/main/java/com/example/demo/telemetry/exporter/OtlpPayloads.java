@@ -0,0 +1,37 @@
+package com.example.demo.telemetry.exporter;
+
+import io.opentelemetry.exporter.internal.marshal.Marshaler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+final class OtlpPayloads {
+
+    private OtlpPayloads() {
+    }
+
+    // Protobuf-encodes an export request straight into an exactly sized array, without an intermediate copy
+    static byte[] serialize(Marshaler marshaler) {
+        byte[] payload = new byte[marshaler.getBinarySerializedSize()];
+        try {
+            marshaler.writeBinaryTo(new OutputStream() {
+                private int position;
+
+                @Override
+                public void write(int b) {
+                    payload[position++] = (byte) b;
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    System.arraycopy(bytes, offset, payload, position, length);
+                    position += length;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize OTLP request", e);
+        }
+        return payload;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.telemetry.exporter;
+
+/**
+ * OTLP signal types, with the request path used by OTLP/HTTP and the gRPC method path for each of them.
+ */
+public enum OtlpSignal {
+
+    LOGS("/v1/logs", "/opentelemetry.proto.collector.logs.v1.LogsService/Export"),
+    TRACES("/v1/traces", "/opentelemetry.proto.collector.trace.v1.TraceService/Export"),
+    METRICS("/v1/metrics", "/opentelemetry.proto.collector.metrics.v1.MetricsService/Export");
+
+    private final String httpPath;
+    private final String grpcPath;
+
+    OtlpSignal(String httpPath, String grpcPath) {
+        this.httpPath = httpPath;
+        this.grpcPath = grpcPath;
+    }
+
+    public String getHttpPath() {
+        return httpPath;
+    }
+
+    public String getGrpcPath() {
+        return grpcPath;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.telemetry.exporter;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+
+/**
+ * Connection to the OTLP endpoint shared by the exporters of every signal, so logs, traces and metrics
+ * reuse the same connections instead of each exporter owning its own client.
+ */
+public interface OtlpTransport {
+
+    /**
+     * Sends one serialized OTLP export request (protobuf encoded) for {@code signal}. Does not block.
+     */
+    CompletableResultCode send(OtlpSignal signal, byte[] payload);
+
+    /**
+     * Releases the connections. Called once, after all exporters using the transport are shut down.
+     */
+    CompletableResultCode shutdown();
+}
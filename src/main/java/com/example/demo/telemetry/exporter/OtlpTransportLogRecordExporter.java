@@ -0,0 +1,36 @@
+package com.example.demo.telemetry.exporter;
+
+import io.opentelemetry.exporter.internal.otlp.logs.LogsRequestMarshaler;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+
+import java.util.Collection;
+
+/**
+ * OTLP log exporter that serializes batches with the SDK marshalers and sends them over a shared
+ * {@link OtlpTransport}. The transport is owned by whoever created it and is not shut down here.
+ */
+public final class OtlpTransportLogRecordExporter implements LogRecordExporter {
+
+    private final OtlpTransport transport;
+
+    public OtlpTransportLogRecordExporter(OtlpTransport transport) {
+        this.transport = transport;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<LogRecordData> logs) {
+        return transport.send(OtlpSignal.LOGS, OtlpPayloads.serialize(LogsRequestMarshaler.create(logs)));
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
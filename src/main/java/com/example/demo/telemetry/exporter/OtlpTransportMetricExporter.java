@@ -0,0 +1,44 @@
+package com.example.demo.telemetry.exporter;
+
+import io.opentelemetry.exporter.internal.otlp.metrics.MetricsRequestMarshaler;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.metrics.InstrumentType;
+import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.export.MetricExporter;
+
+import java.util.Collection;
+
+/**
+ * OTLP metric exporter that serializes metric batches with the SDK marshalers and sends them over a shared
+ * {@link OtlpTransport}, using cumulative temporality like the stock OTLP exporters. The transport is owned
+ * by whoever created it and is not shut down here.
+ */
+public final class OtlpTransportMetricExporter implements MetricExporter {
+
+    private final OtlpTransport transport;
+
+    public OtlpTransportMetricExporter(OtlpTransport transport) {
+        this.transport = transport;
+    }
+
+    @Override
+    public AggregationTemporality getAggregationTemporality(InstrumentType instrumentType) {
+        return AggregationTemporality.CUMULATIVE;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<MetricData> metrics) {
+        return transport.send(OtlpSignal.METRICS, OtlpPayloads.serialize(MetricsRequestMarshaler.create(metrics)));
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
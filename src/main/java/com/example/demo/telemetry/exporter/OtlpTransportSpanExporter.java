@@ -0,0 +1,36 @@
+package com.example.demo.telemetry.exporter;
+
+import io.opentelemetry.exporter.internal.otlp.traces.TraceRequestMarshaler;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+
+/**
+ * OTLP span exporter that serializes batches with the SDK marshalers and sends them over a shared
+ * {@link OtlpTransport}. The transport is owned by whoever created it and is not shut down here.
+ */
+public final class OtlpTransportSpanExporter implements SpanExporter {
+
+    private final OtlpTransport transport;
+
+    public OtlpTransportSpanExporter(OtlpTransport transport) {
+        this.transport = transport;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        return transport.send(OtlpSignal.TRACES, OtlpPayloads.serialize(TraceRequestMarshaler.create(spans)));
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
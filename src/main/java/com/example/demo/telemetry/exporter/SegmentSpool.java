@@ -0,0 +1,366 @@
+package com.example.demo.telemetry.exporter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of serialized OTLP requests stored in fixed-size, memory-mapped segment files.
+ * <p>
+ * Segment layout: a 16-byte header ({@code magic}, reserved, {@code ackedOffset}) followed by records of
+ * {@code length, crc32, signal, payload}. A record's length is written last, so a record torn by a crash is
+ * never read back. The acknowledged offset lives in the segment header, which makes replay resume where
+ * it left off after a restart. Fully acknowledged segments are deleted; when the segment count would
+ * exceed the disk quota the oldest segment is evicted, unsent data included. Segments are unmapped before
+ * their file is deleted, so the disk space is freed right away rather than when the buffer is collected.
+ * <p>
+ * All methods are synchronized: appends come from the exporter threads and replay from one thread, and
+ * each operation is a short memory copy.
+ */
+final class SegmentSpool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentSpool.class);
+
+    private static final int MAGIC = 0x4F544C50;
+    private static final int HEADER_SIZE = 16;
+    private static final int ACKED_OFFSET_POSITION = 8;
+    private static final int RECORD_HEADER_SIZE = 9;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final MethodHandle UNMAP = unmapHandle();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    // Oldest first; the last segment is the one being written unless it is sealed
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private long nextSegmentId;
+    private boolean closed;
+
+    private long appendedRecords;
+    private long acknowledgedRecords;
+    private long evictedSegments;
+
+    SegmentSpool(Path directory, int segmentSize, long maxDiskUsage) {
+        if (UNMAP == null) {
+            logger.warn("Cannot unmap spool segments; deleted segments use disk space until garbage collected");
+        }
+        if (segmentSize <= HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("segment size too small: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = (int) Math.max(1, maxDiskUsage / segmentSize);
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open spool directory " + directory, e);
+        }
+    }
+
+    /**
+     * Appends one request to the write segment, rolling to a new segment when it does not fit.
+     *
+     * @return {@code false} if the request is larger than a segment, the disk write failed or the spool is closed
+     */
+    synchronized boolean append(OtlpSignal signal, byte[] payload) {
+        int recordSize = RECORD_HEADER_SIZE + payload.length;
+        if (closed || recordSize > segmentSize - HEADER_SIZE) {
+            return false;
+        }
+        try {
+            Segment segment = segments.peekLast();
+            if (segment == null || segment.sealed || segment.writeOffset + recordSize > segmentSize) {
+                segment = roll();
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+
+            MappedByteBuffer buffer = segment.buffer;
+            int offset = segment.writeOffset;
+            buffer.putInt(offset + 4, (int) crc.getValue());
+            buffer.put(offset + 8, (byte) signal.ordinal());
+            buffer.put(offset + RECORD_HEADER_SIZE, payload);
+            // Length last: until it is set the record does not exist for readers
+            buffer.putInt(offset, payload.length);
+            segment.writeOffset = offset + recordSize;
+            appendedRecords++;
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to spool OTLP {} request to {}", signal, directory, e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the oldest unacknowledged request, or {@code null} if everything has been acknowledged.
+     */
+    synchronized SpooledRequest peek() {
+        if (closed) {
+            return null;
+        }
+        Segment segment;
+        while ((segment = segments.peekFirst()) != null) {
+            SpooledRequest request = readAt(segment, segment.readOffset);
+            if (request != null) {
+                return request;
+            }
+            if (!segment.sealed) {
+                return null;
+            }
+            // Sealed and fully read: nothing will ever be appended to it again
+            segments.pollFirst();
+            delete(segment);
+        }
+        return null;
+    }
+
+    /**
+     * Marks {@code request} as delivered. Ignored if its segment was evicted in the meantime.
+     */
+    synchronized void acknowledge(SpooledRequest request) {
+        Segment segment = request.segment;
+        if (closed || segment.deleted || segment.readOffset != request.offset) {
+            return;
+        }
+        segment.readOffset = request.nextOffset;
+        segment.buffer.putLong(ACKED_OFFSET_POSITION, request.nextOffset);
+        acknowledgedRecords++;
+    }
+
+    synchronized boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (segment.readOffset < segment.writeOffset) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Bytes of spooled but not yet acknowledged data. */
+    synchronized long getPendingBytes() {
+        long pending = 0;
+        for (Segment segment : segments) {
+            pending += Math.max(0, segment.writeOffset - segment.readOffset);
+        }
+        return pending;
+    }
+
+    synchronized long getAppendedRecords() {
+        return appendedRecords;
+    }
+
+    synchronized long getAcknowledgedRecords() {
+        return acknowledgedRecords;
+    }
+
+    synchronized long getEvictedSegments() {
+        return evictedSegments;
+    }
+
+    /** Flushes and unmaps the segments; afterwards nothing is appended, read or acknowledged. */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            unmap(segment);
+        }
+    }
+
+    private SpooledRequest readAt(Segment segment, int offset) {
+        if (offset + RECORD_HEADER_SIZE > segmentSize) {
+            return null;
+        }
+        MappedByteBuffer buffer = segment.buffer;
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + RECORD_HEADER_SIZE + length > segmentSize) {
+            return null;
+        }
+        int signalOrdinal = buffer.get(offset + 8);
+        if (signalOrdinal < 0 || signalOrdinal >= OtlpSignal.values().length) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(offset + RECORD_HEADER_SIZE, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+            // Torn write from a crash: treat as the end of the segment
+            return null;
+        }
+        return new SpooledRequest(segment, offset, offset + RECORD_HEADER_SIZE + length,
+                OtlpSignal.values()[signalOrdinal], payload);
+    }
+
+    private Segment roll() throws IOException {
+        Segment previous = segments.peekLast();
+        if (previous != null) {
+            previous.sealed = true;
+        }
+        Segment segment = map(nextSegmentId++, true);
+        segments.addLast(segment);
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.pollFirst();
+            evictedSegments++;
+            logger.warn("Spool quota reached, evicting segment {} with {} unsent bytes",
+                    oldest.path.getFileName(), Math.max(0, oldest.writeOffset - oldest.readOffset));
+            delete(oldest);
+        }
+        return segment;
+    }
+
+    private Segment map(long id, boolean create) throws IOException {
+        Path path = segmentPath(id);
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        Segment segment = new Segment(path, buffer);
+        if (create) {
+            buffer.putLong(ACKED_OFFSET_POSITION, HEADER_SIZE);
+            buffer.putInt(0, MAGIC);
+            segment.readOffset = HEADER_SIZE;
+            segment.writeOffset = HEADER_SIZE;
+        }
+        return segment;
+    }
+
+    // Reopens segments left by a previous run; they are only replayed, new data goes to a fresh segment
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    ids.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring unexpected file in spool directory: {}", path);
+                }
+            }
+        }
+        Collections.sort(ids);
+        for (long id : ids) {
+            if (Files.size(segmentPath(id)) != segmentSize) {
+                logger.warn("Discarding spool segment {} with a different segment size", id);
+                Files.deleteIfExists(segmentPath(id));
+                continue;
+            }
+            Segment segment = map(id, false);
+            if (segment.buffer.getInt(0) != MAGIC) {
+                delete(segment);
+                continue;
+            }
+            long ackedOffset = segment.buffer.getLong(ACKED_OFFSET_POSITION);
+            segment.readOffset = (int) Math.max(HEADER_SIZE, Math.min(ackedOffset, segmentSize));
+            int end = segment.readOffset;
+            SpooledRequest request;
+            while ((request = readAt(segment, end)) != null) {
+                end = request.nextOffset;
+            }
+            segment.writeOffset = end;
+            segment.sealed = true;
+            segments.addLast(segment);
+            nextSegmentId = id + 1;
+        }
+        if (!segments.isEmpty()) {
+            logger.info("Recovered {} spool segment(s) with {} bytes to replay", segments.size(), getPendingBytes());
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%020d%s", id, SEGMENT_SUFFIX));
+    }
+
+    private void delete(Segment segment) {
+        segment.deleted = true;
+        unmap(segment);
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete spool segment {}", segment.path, e);
+        }
+    }
+
+    // Every access to a buffer goes through this synchronized class and checks deleted or closed first, so no
+    // reference is used after the mapping is released
+    private static void unmap(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        segment.buffer = null;
+        if (buffer == null || UNMAP == null) {
+            return;
+        }
+        try {
+            UNMAP.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            logger.warn("Failed to unmap spool segment {}", segment.path, e);
+        }
+    }
+
+    // MappedByteBuffer has no unmap method on Java 17; Unsafe.invokeCleaner releases the mapping at once
+    private static MethodHandle unmapHandle() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.publicLookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static final class Segment {
+
+        final Path path;
+        MappedByteBuffer buffer;
+        int readOffset;
+        int writeOffset;
+        boolean sealed;
+        boolean deleted;
+
+        Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+
+    static final class SpooledRequest {
+
+        private final Segment segment;
+        private final int offset;
+        private final int nextOffset;
+        final OtlpSignal signal;
+        final byte[] payload;
+
+        private SpooledRequest(Segment segment, int offset, int nextOffset, OtlpSignal signal, byte[] payload) {
+            this.segment = segment;
+            this.offset = offset;
+            this.nextOffset = nextOffset;
+            this.signal = signal;
+            this.payload = payload;
+        }
+    }
+}
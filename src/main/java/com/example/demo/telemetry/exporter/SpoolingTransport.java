@@ -0,0 +1,172 @@
+package com.example.demo.telemetry.exporter;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spooling decorator for an {@link OtlpTransport}. While the collector accepts requests they are sent
+ * directly, up to {@code maxInFlight} at a time, so the connection's concurrency is used as without the
+ * spool. A request that fails, or finds every slot taken, is appended to a {@link SegmentSpool} on local disk
+ * and acknowledged to the exporter; from the first failure on, new requests go to the spool too. A single
+ * replay thread delivers spooled requests in order through the wrapped transport, drops them from disk only
+ * once the collector accepted them, and backs off while it is down. The first successful replay resumes
+ * direct sends while the rest of the backlog drains. Requests left on disk by a previous run are replayed first.
+ */
+public final class SpoolingTransport implements OtlpTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpoolingTransport.class);
+
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long IDLE_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final OtlpTransport delegate;
+    private final SegmentSpool spool;
+    private final Duration timeout;
+    private final int maxInFlight;
+    private final Thread replayThread;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong directRequests = new AtomicLong();
+    private volatile boolean collectorAvailable = true;
+    private volatile boolean running = true;
+
+    public SpoolingTransport(OtlpTransport delegate, Path directory, int segmentSize, long maxDiskUsage,
+                             Duration timeout, int maxInFlight) {
+        this.delegate = delegate;
+        this.spool = new SegmentSpool(directory, segmentSize, maxDiskUsage);
+        this.timeout = timeout;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.replayThread = new Thread(this::replay, "otlp-spool-replay");
+        this.replayThread.setDaemon(true);
+        this.replayThread.start();
+    }
+
+    @Override
+    public CompletableResultCode send(OtlpSignal signal, byte[] payload) {
+        if (collectorAvailable) {
+            if (inFlight.incrementAndGet() <= maxInFlight) {
+                return sendDirectly(signal, payload);
+            }
+            // Backpressure: the connection is saturated, let the spool absorb the burst
+            inFlight.decrementAndGet();
+        }
+        if (spool.append(signal, payload)) {
+            LockSupport.unpark(replayThread);
+            return CompletableResultCode.ofSuccess();
+        }
+        // Larger than a segment, or the disk is unusable: fall back to a direct, non-durable send
+        return delegate.send(signal, payload);
+    }
+
+    private CompletableResultCode sendDirectly(OtlpSignal signal, byte[] payload) {
+        directRequests.incrementAndGet();
+        CompletableResultCode sent = delegate.send(signal, payload);
+        CompletableResultCode result = new CompletableResultCode();
+        sent.whenComplete(() -> {
+            inFlight.decrementAndGet();
+            if (sent.isSuccess()) {
+                result.succeed();
+                return;
+            }
+            // Keep the request for replay, and spool the ones after it until replay gets through
+            collectorAvailable = false;
+            if (spool.append(signal, payload)) {
+                LockSupport.unpark(replayThread);
+                result.succeed();
+            } else {
+                result.fail();
+            }
+        });
+        return result;
+    }
+
+    /**
+     * While the collector is reachable, gives the replay thread up to the export timeout to drain the spool.
+     * While it is down, returns without waiting for it: whatever is still on disk, including a request being
+     * replayed, is replayed on the next start.
+     */
+    @Override
+    public CompletableResultCode shutdown() {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (collectorAvailable && !spool.isEmpty() && System.nanoTime() - deadline < 0) {
+            LockSupport.unpark(replayThread);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        running = false;
+        LockSupport.unpark(replayThread);
+        if (collectorAvailable) {
+            try {
+                replayThread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // A replay still in flight finds the spool closed and leaves its request on disk
+        spool.close();
+        if (!spool.isEmpty()) {
+            logger.info("{} bytes of telemetry left in the spool for the next start", spool.getPendingBytes());
+        }
+        return delegate.shutdown();
+    }
+
+    /** Bytes spooled on disk and not yet delivered. */
+    public long getPendingBytes() {
+        return spool.getPendingBytes();
+    }
+
+    /** Requests sent without going through the spool. */
+    public long getDirectRequests() {
+        return directRequests.get();
+    }
+
+    public long getSpooledRequests() {
+        return spool.getAppendedRecords();
+    }
+
+    public long getReplayedRequests() {
+        return spool.getAcknowledgedRecords();
+    }
+
+    /** Segments deleted by the disk quota before they were delivered. */
+    public long getEvictedSegments() {
+        return spool.getEvictedSegments();
+    }
+
+    private void replay() {
+        long backoffNanos = MIN_BACKOFF_NANOS;
+        long retryAtNanos = System.nanoTime();
+        while (running) {
+            // New appends unpark this thread; they must not cut a back-off short
+            long waitNanos = retryAtNanos - System.nanoTime();
+            if (waitNanos > 0) {
+                LockSupport.parkNanos(waitNanos);
+                continue;
+            }
+            SegmentSpool.SpooledRequest request = spool.peek();
+            if (request == null) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            CompletableResultCode result = delegate.send(request.signal, request.payload);
+            result.join(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (result.isSuccess()) {
+                spool.acknowledge(request);
+                backoffNanos = MIN_BACKOFF_NANOS;
+                collectorAvailable = true;
+            } else {
+                logger.debug("Replay of spooled OTLP {} request failed, retrying in {} ms",
+                        request.signal, TimeUnit.NANOSECONDS.toMillis(backoffNanos));
+                retryAtNanos = System.nanoTime() + backoffNanos;
+                backoffNanos = Math.min(MAX_BACKOFF_NANOS, backoffNanos * 2);
+            }
+        }
+    }
+}
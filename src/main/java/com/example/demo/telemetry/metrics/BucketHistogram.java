@@ -0,0 +1,74 @@
+package com.example.demo.telemetry.metrics;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-boundary histogram for the Actuator view of the export pipeline. Recording is lock-free and
+ * allocation-free; snapshots are read without stopping writers, so they may be off by in-flight records.
+ */
+public final class BucketHistogram {
+
+    private final long[] boundaries;
+    private final AtomicLongArray counts;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param boundaries inclusive upper bounds of the buckets, ascending; values above the last one go to an
+     *                   overflow bucket
+     */
+    public BucketHistogram(long... boundaries) {
+        for (int i = 1; i < boundaries.length; i++) {
+            if (boundaries[i] <= boundaries[i - 1]) {
+                throw new IllegalArgumentException("boundaries must be ascending: " + Arrays.toString(boundaries));
+            }
+        }
+        this.boundaries = boundaries.clone();
+        this.counts = new AtomicLongArray(boundaries.length + 1);
+    }
+
+    public void record(long value) {
+        int index = Arrays.binarySearch(boundaries, value);
+        counts.incrementAndGet(index >= 0 ? index : -index - 1);
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Count, mean, max and cumulative bucket counts keyed by upper bound, with values divided by
+     * {@code scale} (e.g. nanoseconds to milliseconds).
+     */
+    public Map<String, Object> snapshot(double scale) {
+        long total = count.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("count", total);
+        snapshot.put("mean", total == 0 ? 0.0 : sum.sum() / scale / total);
+        snapshot.put("max", max.get() / scale);
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        long cumulative = 0;
+        for (int i = 0; i < boundaries.length; i++) {
+            cumulative += counts.get(i);
+            buckets.put("le " + format(boundaries[i] / scale), cumulative);
+        }
+        buckets.put("le +Inf", cumulative + counts.get(boundaries.length));
+        snapshot.put("buckets", buckets);
+        return snapshot;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
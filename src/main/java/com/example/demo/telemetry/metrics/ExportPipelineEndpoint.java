@@ -0,0 +1,25 @@
+package com.example.demo.telemetry.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/telemetry}: queue occupancy, drops, batch sizes and export latency of the log and span
+ * pipelines, and the state of the disk spool.
+ */
+@Endpoint(id = "telemetry")
+public class ExportPipelineEndpoint {
+
+    private final ExportPipelineTelemetry telemetry;
+
+    public ExportPipelineEndpoint(ExportPipelineTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    @ReadOperation
+    public Map<String, Object> telemetry() {
+        return telemetry.snapshot();
+    }
+}
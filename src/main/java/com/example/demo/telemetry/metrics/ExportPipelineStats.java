@@ -0,0 +1,198 @@
+package com.example.demo.telemetry.metrics;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Counters and histograms for one export pipeline (processor plus exporter) of a signal. Fed by the
+ * {@code Instrumented*} wrappers, read by the Actuator endpoint and published as OTel metrics with a
+ * {@code pipeline} attribute.
+ */
+public final class ExportPipelineStats {
+
+    static final AttributeKey<String> PIPELINE = AttributeKey.stringKey("pipeline");
+
+    private static final long[] LATENCY_BOUNDARIES_MILLIS =
+            {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+    private static final long[] BATCH_SIZE_BOUNDARIES = {1, 8, 32, 64, 128, 256, 512, 1024, 2048, 4096, 8192};
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String pipeline;
+    private final String processor;
+    private final Attributes attributes;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder exportedItems = new LongAdder();
+    private final LongAdder failedItems = new LongAdder();
+    private final LongAdder failedExports = new LongAdder();
+    private final BucketHistogram batchSizes = new BucketHistogram(BATCH_SIZE_BOUNDARIES);
+    private final BucketHistogram exportLatency = new BucketHistogram(
+            Arrays.stream(LATENCY_BOUNDARIES_MILLIS).map(TimeUnit.MILLISECONDS::toNanos).toArray());
+
+    private final LongHistogram batchSizeHistogram;
+    private final DoubleHistogram exportDurationHistogram;
+
+    private volatile QueueProbe queue;
+
+    ExportPipelineStats(String pipeline, String processor, Meter meter) {
+        this.pipeline = pipeline;
+        this.processor = processor;
+        this.attributes = Attributes.of(PIPELINE, pipeline);
+
+        this.batchSizeHistogram = meter.histogramBuilder("otel.pipeline.export.batch_size")
+                .setDescription("Items per export request")
+                .setUnit("{item}")
+                .ofLongs()
+                .setExplicitBucketBoundariesAdvice(Arrays.stream(BATCH_SIZE_BOUNDARIES).boxed()
+                        .collect(Collectors.toList()))
+                .build();
+        this.exportDurationHistogram = meter.histogramBuilder("otel.pipeline.export.duration")
+                .setDescription("Duration of export requests to the OTLP endpoint")
+                .setUnit("s")
+                .setExplicitBucketBoundariesAdvice(Arrays.stream(LATENCY_BOUNDARIES_MILLIS)
+                        .mapToObj(millis -> millis / 1000.0)
+                        .collect(Collectors.toList()))
+                .build();
+
+        meter.counterBuilder("otel.pipeline.items.enqueued")
+                .setDescription("Items handed to the processor")
+                .setUnit("{item}")
+                .buildWithCallback(measurement -> measurement.record(enqueued.sum(), attributes));
+        meter.counterBuilder("otel.pipeline.items.exported")
+                .setDescription("Items accepted by the OTLP endpoint")
+                .setUnit("{item}")
+                .buildWithCallback(measurement -> measurement.record(exportedItems.sum(), attributes));
+        meter.counterBuilder("otel.pipeline.items.failed")
+                .setDescription("Items in export requests that failed")
+                .setUnit("{item}")
+                .buildWithCallback(measurement -> measurement.record(failedItems.sum(), attributes));
+        meter.counterBuilder("otel.pipeline.export.failures")
+                .setDescription("Export requests that failed")
+                .setUnit("{request}")
+                .buildWithCallback(measurement -> measurement.record(failedExports.sum(), attributes));
+        meter.counterBuilder("otel.pipeline.items.dropped")
+                .setDescription("Items dropped because the processor queue was full")
+                .setUnit("{item}")
+                .buildWithCallback(measurement -> {
+                    QueueProbe probe = queue;
+                    if (probe != null) {
+                        measurement.record(probe.dropped(), attributes);
+                    }
+                });
+        meter.gaugeBuilder("otel.pipeline.queue.size")
+                .setDescription("Items buffered in the processor queue")
+                .setUnit("{item}")
+                .ofLongs()
+                .buildWithCallback(measurement -> {
+                    QueueProbe probe = queue;
+                    if (probe != null) {
+                        measurement.record(probe.size(), attributes);
+                    }
+                });
+        meter.gaugeBuilder("otel.pipeline.queue.capacity")
+                .setDescription("Capacity of the processor queue")
+                .setUnit("{item}")
+                .ofLongs()
+                .buildWithCallback(measurement -> {
+                    QueueProbe probe = queue;
+                    if (probe != null) {
+                        measurement.record(probe.capacity(), attributes);
+                    }
+                });
+    }
+
+    /**
+     * Exposes the queue of a processor that reports its occupancy and drops. The stock SDK processors do
+     * not; for them these values are only available through the SDK's own processor metrics.
+     */
+    public void setQueue(QueueProbe queue) {
+        this.queue = queue;
+    }
+
+    void recordEnqueued() {
+        enqueued.increment();
+    }
+
+    void recordExport(int items, long durationNanos, boolean success) {
+        batchSizes.record(items);
+        exportLatency.record(durationNanos);
+        batchSizeHistogram.record(items, attributes);
+        exportDurationHistogram.record(durationNanos / NANOS_PER_SECOND, attributes);
+        if (success) {
+            exportedItems.add(items);
+        } else {
+            failedItems.add(items);
+            failedExports.increment();
+        }
+    }
+
+    public String getPipeline() {
+        return pipeline;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("processor", processor);
+        QueueProbe probe = queue;
+        if (probe != null) {
+            int size = probe.size();
+            int capacity = probe.capacity();
+            Map<String, Object> queueSnapshot = new LinkedHashMap<>();
+            queueSnapshot.put("size", size);
+            queueSnapshot.put("capacity", capacity);
+            queueSnapshot.put("utilization", capacity == 0 ? 0.0 : (double) size / capacity);
+            snapshot.put("queue", queueSnapshot);
+        }
+        snapshot.put("enqueued", enqueued.sum());
+        snapshot.put("dropped", probe != null ? probe.dropped() : null);
+        snapshot.put("exported", exportedItems.sum());
+        snapshot.put("failed", failedItems.sum());
+        snapshot.put("exportRequests", exportLatency.getCount());
+        snapshot.put("failedExportRequests", failedExports.sum());
+        snapshot.put("batchSize", batchSizes.snapshot(1));
+        snapshot.put("exportLatencyMillis", exportLatency.snapshot(NANOS_PER_MILLI));
+        return snapshot;
+    }
+
+    /** Occupancy and drop counts of a processor queue. */
+    public interface QueueProbe {
+
+        int size();
+
+        int capacity();
+
+        long dropped();
+
+        static QueueProbe of(IntSupplier size, IntSupplier capacity, LongSupplier dropped) {
+            return new QueueProbe() {
+                @Override
+                public int size() {
+                    return size.getAsInt();
+                }
+
+                @Override
+                public int capacity() {
+                    return capacity.getAsInt();
+                }
+
+                @Override
+                public long dropped() {
+                    return dropped.getAsLong();
+                }
+            };
+        }
+    }
+}
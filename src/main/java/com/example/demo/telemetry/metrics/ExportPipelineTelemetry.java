@@ -0,0 +1,94 @@
+package com.example.demo.telemetry.metrics;
+
+import com.example.demo.telemetry.exporter.OtlpTransport;
+import com.example.demo.telemetry.exporter.SpoolingTransport;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Self-telemetry of the export pipelines: one {@link ExportPipelineStats} per signal plus the disk spool,
+ * if the shared transport spools, and the tail sampler, if enabled. Everything registered here is published
+ * as OTel metrics on {@code meter} and summarized by {@link #snapshot()} for the Actuator endpoint.
+ */
+public final class ExportPipelineTelemetry {
+
+    private final Meter meter;
+    private final String protocol;
+    private final SpoolingTransport spool;
+    private final Map<String, ExportPipelineStats> pipelines = new LinkedHashMap<>();
+    private TailSamplingStats tailSampling;
+
+    public ExportPipelineTelemetry(Meter meter, String protocol, OtlpTransport transport) {
+        this.meter = meter;
+        this.protocol = protocol;
+        this.spool = transport instanceof SpoolingTransport ? (SpoolingTransport) transport : null;
+        if (spool != null) {
+            registerSpoolMetrics();
+        }
+    }
+
+    /**
+     * Creates the stats for a pipeline and registers its instruments. Pipelines are created during startup,
+     * before any snapshot is taken.
+     */
+    public synchronized ExportPipelineStats createPipeline(String pipeline, String processor) {
+        if (pipelines.containsKey(pipeline)) {
+            throw new IllegalStateException("Pipeline already registered: " + pipeline);
+        }
+        ExportPipelineStats stats = new ExportPipelineStats(pipeline, processor, meter);
+        pipelines.put(pipeline, stats);
+        return stats;
+    }
+
+    /** Creates the tail sampler's stats and registers its instruments, during startup like the pipelines. */
+    public synchronized TailSamplingStats createTailSamplingStats() {
+        if (tailSampling != null) {
+            throw new IllegalStateException("Tail sampling stats already registered");
+        }
+        tailSampling = new TailSamplingStats(meter);
+        return tailSampling;
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("protocol", protocol);
+        Map<String, Object> pipelineSnapshots = new LinkedHashMap<>();
+        pipelines.forEach((name, stats) -> pipelineSnapshots.put(name, stats.snapshot()));
+        snapshot.put("pipelines", pipelineSnapshots);
+        if (spool != null) {
+            Map<String, Object> spoolSnapshot = new LinkedHashMap<>();
+            spoolSnapshot.put("pendingBytes", spool.getPendingBytes());
+            spoolSnapshot.put("directRequests", spool.getDirectRequests());
+            spoolSnapshot.put("spooledRequests", spool.getSpooledRequests());
+            spoolSnapshot.put("replayedRequests", spool.getReplayedRequests());
+            spoolSnapshot.put("evictedSegments", spool.getEvictedSegments());
+            snapshot.put("spool", spoolSnapshot);
+        }
+        if (tailSampling != null) {
+            snapshot.put("tailSampling", tailSampling.snapshot());
+        }
+        return snapshot;
+    }
+
+    private void registerSpoolMetrics() {
+        meter.gaugeBuilder("otel.spool.pending")
+                .setDescription("Spooled bytes not yet delivered to the OTLP endpoint")
+                .setUnit("By")
+                .ofLongs()
+                .buildWithCallback(measurement -> measurement.record(spool.getPendingBytes()));
+        meter.counterBuilder("otel.spool.requests.spooled")
+                .setDescription("Export requests written to the spool")
+                .setUnit("{request}")
+                .buildWithCallback(measurement -> measurement.record(spool.getSpooledRequests()));
+        meter.counterBuilder("otel.spool.requests.replayed")
+                .setDescription("Spooled export requests delivered to the OTLP endpoint")
+                .setUnit("{request}")
+                .buildWithCallback(measurement -> measurement.record(spool.getReplayedRequests()));
+        meter.counterBuilder("otel.spool.segments.evicted")
+                .setDescription("Spool segments deleted by the disk quota before delivery")
+                .setUnit("{segment}")
+                .buildWithCallback(measurement -> measurement.record(spool.getEvictedSegments()));
+    }
+}
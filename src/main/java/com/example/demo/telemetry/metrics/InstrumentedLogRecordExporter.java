@@ -0,0 +1,40 @@
+package com.example.demo.telemetry.metrics;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.data.LogRecordData;
+import io.opentelemetry.sdk.logs.export.LogRecordExporter;
+
+import java.util.Collection;
+
+/**
+ * Records batch size, latency and outcome of every export into {@link ExportPipelineStats}.
+ */
+public final class InstrumentedLogRecordExporter implements LogRecordExporter {
+
+    private final LogRecordExporter delegate;
+    private final ExportPipelineStats stats;
+
+    public InstrumentedLogRecordExporter(LogRecordExporter delegate, ExportPipelineStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<LogRecordData> logs) {
+        int items = logs.size();
+        long start = System.nanoTime();
+        CompletableResultCode result = delegate.export(logs);
+        result.whenComplete(() -> stats.recordExport(items, System.nanoTime() - start, result.isSuccess()));
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+}
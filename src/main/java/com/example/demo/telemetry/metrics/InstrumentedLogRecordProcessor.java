@@ -0,0 +1,41 @@
+package com.example.demo.telemetry.metrics;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.logs.LogRecordProcessor;
+import io.opentelemetry.sdk.logs.ReadWriteLogRecord;
+
+/**
+ * Counts records handed to the wrapped processor. Costs one {@code LongAdder} increment per record.
+ */
+public final class InstrumentedLogRecordProcessor implements LogRecordProcessor {
+
+    private final LogRecordProcessor delegate;
+    private final ExportPipelineStats stats;
+
+    public InstrumentedLogRecordProcessor(LogRecordProcessor delegate, ExportPipelineStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Override
+    public void onEmit(Context context, ReadWriteLogRecord logRecord) {
+        stats.recordEnqueued();
+        delegate.onEmit(context, logRecord);
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedLogRecordProcessor{" + delegate + '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.telemetry.metrics;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.util.Collection;
+
+/**
+ * Records batch size, latency and outcome of every export into {@link ExportPipelineStats}.
+ */
+public final class InstrumentedSpanExporter implements SpanExporter {
+
+    private final SpanExporter delegate;
+    private final ExportPipelineStats stats;
+
+    public InstrumentedSpanExporter(SpanExporter delegate, ExportPipelineStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        int items = spans.size();
+        long start = System.nanoTime();
+        CompletableResultCode result = delegate.export(spans);
+        result.whenComplete(() -> stats.recordExport(items, System.nanoTime() - start, result.isSuccess()));
+        return result;
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return delegate.flush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+}
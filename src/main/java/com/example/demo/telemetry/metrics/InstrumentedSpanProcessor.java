@@ -0,0 +1,60 @@
+package com.example.demo.telemetry.metrics;
+
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+/**
+ * Counts sampled spans handed to the wrapped processor; unsampled spans are never exported and are not
+ * counted. Costs one {@code LongAdder} increment per span.
+ */
+public final class InstrumentedSpanProcessor implements SpanProcessor {
+
+    private final SpanProcessor delegate;
+    private final ExportPipelineStats stats;
+
+    public InstrumentedSpanProcessor(SpanProcessor delegate, ExportPipelineStats stats) {
+        this.delegate = delegate;
+        this.stats = stats;
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        delegate.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (span.getSpanContext().isSampled()) {
+            stats.recordEnqueued();
+        }
+        delegate.onEnd(span);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedSpanProcessor{" + delegate + '}';
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.demo.telemetry.metrics;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Decisions, decision latency and buffer occupancy of the tail-sampling span processor, published as
+ * {@code otel.tail_sampling.*} metrics and summarized for the Actuator endpoint. Decision latency is the time
+ * from a trace's first buffered span to its keep or drop decision.
+ */
+public final class TailSamplingStats {
+
+    /** What closed a trace's buffer. */
+    public enum Trigger {
+        /** The local root span ended. */
+        ROOT,
+        /** The decision wait passed without the local root ending. */
+        TIMEOUT,
+        /** Evicted early to stay within the span budget. */
+        EVICTED
+    }
+
+    static final AttributeKey<String> DECISION = AttributeKey.stringKey("decision");
+    static final AttributeKey<String> TRIGGER = AttributeKey.stringKey("trigger");
+
+    private static final long[] LATENCY_BOUNDARIES_MILLIS =
+            {1, 5, 10, 50, 100, 500, 1000, 5000, 10000, 30000, 60000};
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // [kept ? 1 : 0][trigger]
+    private final Attributes[][] attributes = new Attributes[2][Trigger.values().length];
+    private final LongAdder[][] traces = new LongAdder[2][Trigger.values().length];
+    private final LongAdder lateSpans = new LongAdder();
+    private final BucketHistogram decisionLatency = new BucketHistogram(
+            Arrays.stream(LATENCY_BOUNDARIES_MILLIS).map(TimeUnit.MILLISECONDS::toNanos).toArray());
+    private final DoubleHistogram decisionDurationHistogram;
+
+    private volatile Buffer buffer;
+
+    TailSamplingStats(Meter meter) {
+        for (int kept = 0; kept < 2; kept++) {
+            for (Trigger trigger : Trigger.values()) {
+                attributes[kept][trigger.ordinal()] = Attributes.of(
+                        DECISION, kept == 1 ? "keep" : "drop",
+                        TRIGGER, trigger.name().toLowerCase(Locale.ROOT));
+                traces[kept][trigger.ordinal()] = new LongAdder();
+            }
+        }
+        this.decisionDurationHistogram = meter.histogramBuilder("otel.tail_sampling.decision.duration")
+                .setDescription("Time from a trace's first buffered span to its sampling decision")
+                .setUnit("s")
+                .setExplicitBucketBoundariesAdvice(Arrays.stream(LATENCY_BOUNDARIES_MILLIS)
+                        .mapToObj(millis -> millis / 1000.0)
+                        .collect(Collectors.toList()))
+                .build();
+        meter.counterBuilder("otel.tail_sampling.traces")
+                .setDescription("Traces decided by the tail sampler")
+                .setUnit("{trace}")
+                .buildWithCallback(measurement -> {
+                    for (int kept = 0; kept < 2; kept++) {
+                        for (Trigger trigger : Trigger.values()) {
+                            measurement.record(traces[kept][trigger.ordinal()].sum(),
+                                    attributes[kept][trigger.ordinal()]);
+                        }
+                    }
+                });
+        meter.counterBuilder("otel.tail_sampling.spans.late")
+                .setDescription("Spans that ended after their trace was decided")
+                .setUnit("{span}")
+                .buildWithCallback(measurement -> measurement.record(lateSpans.sum()));
+        meter.gaugeBuilder("otel.tail_sampling.buffer.spans")
+                .setDescription("Spans buffered awaiting a decision")
+                .setUnit("{span}")
+                .ofLongs()
+                .buildWithCallback(measurement -> {
+                    Buffer probe = buffer;
+                    if (probe != null) {
+                        measurement.record(probe.spans.getAsInt());
+                    }
+                });
+        meter.gaugeBuilder("otel.tail_sampling.buffer.traces")
+                .setDescription("Traces buffered awaiting a decision")
+                .setUnit("{trace}")
+                .ofLongs()
+                .buildWithCallback(measurement -> {
+                    Buffer probe = buffer;
+                    if (probe != null) {
+                        measurement.record(probe.traces.getAsInt());
+                    }
+                });
+    }
+
+    /** Exposes the processor's buffer occupancy. */
+    public void setBuffer(IntSupplier spans, IntSupplier traces, int capacity) {
+        this.buffer = new Buffer(spans, traces, capacity);
+    }
+
+    public void recordDecision(boolean kept, Trigger trigger, long latencyNanos) {
+        int index = kept ? 1 : 0;
+        traces[index][trigger.ordinal()].increment();
+        decisionLatency.record(latencyNanos);
+        decisionDurationHistogram.record(latencyNanos / NANOS_PER_SECOND, attributes[index][trigger.ordinal()]);
+    }
+
+    public void recordLateSpan() {
+        lateSpans.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        Buffer probe = buffer;
+        if (probe != null) {
+            int spans = probe.spans.getAsInt();
+            Map<String, Object> bufferSnapshot = new LinkedHashMap<>();
+            bufferSnapshot.put("spans", spans);
+            bufferSnapshot.put("traces", probe.traces.getAsInt());
+            bufferSnapshot.put("capacity", probe.capacity);
+            bufferSnapshot.put("utilization", probe.capacity == 0 ? 0.0 : (double) spans / probe.capacity);
+            snapshot.put("buffer", bufferSnapshot);
+        }
+        for (int kept = 1; kept >= 0; kept--) {
+            Map<String, Long> byTrigger = new LinkedHashMap<>();
+            for (Trigger trigger : Trigger.values()) {
+                byTrigger.put(trigger.name().toLowerCase(Locale.ROOT), traces[kept][trigger.ordinal()].sum());
+            }
+            snapshot.put(kept == 1 ? "kept" : "dropped", byTrigger);
+        }
+        snapshot.put("lateSpans", lateSpans.sum());
+        snapshot.put("decisionLatencyMillis", decisionLatency.snapshot(NANOS_PER_MILLI));
+        return snapshot;
+    }
+
+    private static final class Buffer {
+
+        final IntSupplier spans;
+        final IntSupplier traces;
+        final int capacity;
+
+        Buffer(IntSupplier spans, IntSupplier traces, int capacity) {
+            this.spans = spans;
+            this.traces = traces;
+            this.capacity = capacity;
+        }
+    }
+}
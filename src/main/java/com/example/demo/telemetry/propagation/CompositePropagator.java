@@ -0,0 +1,272 @@
+package com.example.demo.telemetry.propagation;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Propagation for a fleet that mixes W3C {@code traceparent} callers with B3 ones. Extraction takes the trace
+ * context from the first extractor, in priority order, that finds one, rather than letting every propagator
+ * overwrite the last. Injection writes the formats configured for the downstream being called, see
+ * {@link #forDownstream}, or the default ones.
+ * <p>
+ * The incoming headers are scanned once: every header name the extractors know is matched, case-insensitively,
+ * in a single pass over {@code getter.keys(carrier)}, and its value fetched by the exact name found. The
+ * extractors then read the captured values from fields, so adding one costs no more carrier lookups, and a
+ * request without any known header costs the scan alone. Carriers whose getter lists no keys are extracted
+ * from directly, by every extractor in turn. Only headers with fixed names are captured, so headers matched
+ * by prefix, such as Jaeger's {@code uberctx-*} baggage, do not reach the extractors.
+ */
+public final class CompositePropagator implements TextMapPropagator {
+
+    // Read by the B3 propagators even when they only inject X-B3-*, so not in their fields()
+    private static final List<String> B3_EXTRACT_HEADERS = List.of(
+            FastB3Propagator.SINGLE_HEADER, FastB3Propagator.TRACE_ID_HEADER, FastB3Propagator.SPAN_ID_HEADER,
+            FastB3Propagator.SAMPLED_HEADER, FastB3Propagator.FLAGS_HEADER);
+
+    private final List<TextMapPropagator> extractors;
+    private final TextMapPropagator injector;
+    private final Map<String, TextMapPropagator> downstreamInjectors;
+    // As the propagators name them, and lower case, indexed like ScannedHeaders.values
+    private final String[] headers;
+    private final String[] lowerCaseHeaders;
+    // Bit n set if a header name has n characters, to pass over other headers with one test
+    private final long headerLengths;
+
+    private CompositePropagator(Builder builder) {
+        this.extractors = List.copyOf(builder.extractors);
+        this.injector = TextMapPropagator.composite(builder.injectors);
+        Map<String, TextMapPropagator> downstream = new HashMap<>();
+        builder.downstreamInjectors.forEach((name, injectors) ->
+                downstream.put(name, TextMapPropagator.composite(injectors)));
+        this.downstreamInjectors = downstream;
+        Map<String, String> names = new LinkedHashMap<>();
+        for (String header : B3_EXTRACT_HEADERS) {
+            names.putIfAbsent(header.toLowerCase(Locale.ROOT), header);
+        }
+        for (TextMapPropagator extractor : extractors) {
+            for (String field : extractor.fields()) {
+                names.putIfAbsent(field.toLowerCase(Locale.ROOT), field);
+            }
+        }
+        this.headers = names.values().toArray(new String[0]);
+        this.lowerCaseHeaders = names.keySet().toArray(new String[0]);
+        long lengths = 0;
+        for (String header : headers) {
+            lengths |= header.length() < Long.SIZE ? 1L << header.length() : 0;
+        }
+        this.headerLengths = lengths;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** The injection fields of the default formats. */
+    @Override
+    public Collection<String> fields() {
+        return injector.fields();
+    }
+
+    /** Injects the default formats. */
+    @Override
+    public <C> void inject(Context context, C carrier, TextMapSetter<C> setter) {
+        injector.inject(context, carrier, setter);
+    }
+
+    /**
+     * A propagator injecting the formats configured for {@code downstream}, e.g. the host being called, or the
+     * default formats if it has none. Its extraction is this propagator's.
+     */
+    public TextMapPropagator forDownstream(String downstream) {
+        TextMapPropagator downstreamInjector = downstream == null ? null : downstreamInjectors.get(downstream);
+        if (downstreamInjector == null) {
+            return this;
+        }
+        return new TextMapPropagator() {
+            @Override
+            public Collection<String> fields() {
+                return downstreamInjector.fields();
+            }
+
+            @Override
+            public <C> void inject(Context context, C carrier, TextMapSetter<C> setter) {
+                downstreamInjector.inject(context, carrier, setter);
+            }
+
+            @Override
+            public <C> Context extract(Context context, C carrier, TextMapGetter<C> getter) {
+                return CompositePropagator.this.extract(context, carrier, getter);
+            }
+        };
+    }
+
+    @Override
+    public <C> Context extract(Context context, C carrier, TextMapGetter<C> getter) {
+        if (context == null) {
+            return Context.root();
+        }
+        if (getter == null) {
+            return context;
+        }
+        Iterator<String> keys = getter.keys(carrier).iterator();
+        if (!keys.hasNext()) {
+            return extractEach(context, carrier, getter);
+        }
+        ScannedHeaders scanned = null;
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (key.length() < Long.SIZE && (headerLengths & 1L << key.length()) == 0) {
+                continue;
+            }
+            int index = indexOf(key);
+            if (index < 0) {
+                continue;
+            }
+            String value = getter.get(carrier, key);
+            if (value != null) {
+                if (scanned == null) {
+                    scanned = new ScannedHeaders(this);
+                }
+                scanned.values[index] = value;
+            }
+        }
+        return scanned == null ? context : extractEach(context, scanned, ScannedHeaders.GETTER);
+    }
+
+    private <C> Context extractEach(Context context, C carrier, TextMapGetter<C> getter) {
+        for (TextMapPropagator extractor : extractors) {
+            Context extracted = extractor.extract(context, carrier, getter);
+            if (extracted != context && Span.fromContext(extracted).getSpanContext().isValid()) {
+                return extracted;
+            }
+        }
+        return context;
+    }
+
+    private int indexOf(String key) {
+        // The extractors ask for their own constants, so try those before a case-insensitive match
+        for (int i = 0; i < headers.length; i++) {
+            if (headers[i] == key) {
+                return i;
+            }
+        }
+        for (int i = 0; i < lowerCaseHeaders.length; i++) {
+            if (equalsLowerCase(lowerCaseHeaders[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Header names are ASCII, so folding to lower case is one OR; far cheaper than String.equalsIgnoreCase
+    private static boolean equalsLowerCase(String lowerCase, String key) {
+        int length = lowerCase.length();
+        if (length != key.length()) {
+            return false;
+        }
+        for (int i = length - 1; i >= 0; i--) {
+            char c = key.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c |= 0x20;
+            }
+            if (c != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "CompositePropagator{extractors=" + extractors + ", injector=" + injector
+                + ", downstream=" + downstreamInjectors.keySet() + '}';
+    }
+
+    /** The known headers of one request, captured by the scan. */
+    private static final class ScannedHeaders {
+
+        static final TextMapGetter<ScannedHeaders> GETTER = new TextMapGetter<>() {
+            @Override
+            public Iterable<String> keys(ScannedHeaders carrier) {
+                List<String> keys = new ArrayList<>();
+                for (int i = 0; i < carrier.values.length; i++) {
+                    if (carrier.values[i] != null) {
+                        keys.add(carrier.propagator.headers[i]);
+                    }
+                }
+                return keys;
+            }
+
+            @Override
+            public String get(ScannedHeaders carrier, String key) {
+                if (carrier == null) {
+                    return null;
+                }
+                int index = carrier.propagator.indexOf(key);
+                return index < 0 ? null : carrier.values[index];
+            }
+        };
+
+        final CompositePropagator propagator;
+        final String[] values;
+
+        ScannedHeaders(CompositePropagator propagator) {
+            this.propagator = propagator;
+            this.values = new String[propagator.headers.length];
+        }
+
+        @Override
+        public String toString() {
+            return "ScannedHeaders" + Arrays.toString(values);
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<TextMapPropagator> extractors = new ArrayList<>();
+        private final List<TextMapPropagator> injectors = new ArrayList<>();
+        private final Map<String, List<TextMapPropagator>> downstreamInjectors = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /** Adds an extractor; earlier ones take precedence when a request carries several formats. */
+        public Builder addExtractor(TextMapPropagator extractor) {
+            extractors.add(Objects.requireNonNull(extractor, "extractor"));
+            return this;
+        }
+
+        /** Adds a format injected into calls to downstreams without formats of their own. */
+        public Builder addInjector(TextMapPropagator injector) {
+            injectors.add(Objects.requireNonNull(injector, "injector"));
+            return this;
+        }
+
+        /** Sets the formats injected into calls to {@code downstream}, in place of the default ones. */
+        public Builder setDownstreamInjectors(String downstream, List<TextMapPropagator> injectors) {
+            downstreamInjectors.put(Objects.requireNonNull(downstream, "downstream"), List.copyOf(injectors));
+            return this;
+        }
+
+        public CompositePropagator build() {
+            if (extractors.isEmpty()) {
+                throw new IllegalStateException("At least one extractor is required");
+            }
+            return new CompositePropagator(this);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.demo.telemetry.propagation;
+
+import com.example.demo.telemetry.PlatformThreadCache;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.context.propagation.TextMapSetter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * B3 propagation that reads and writes the headers with as little garbage as the API allows. It is a drop-in
+ * for {@code B3Propagator}: it extracts the single {@code b3} header, falling back to the {@code X-B3-*}
+ * headers, and injects one or the other.
+ * <p>
+ * Ids are validated in place, one pass over the header characters, without splitting the header. The
+ * {@link SpanContext} API holds ids as hex strings, so those are not avoidable, but a 32 digit multi-header
+ * trace id is used as is, and the single header is only sliced for its two ids. 64-bit trace ids are padded
+ * and the single header is formatted in a buffer per platform thread.
+ */
+public final class FastB3Propagator implements TextMapPropagator {
+
+    static final String SINGLE_HEADER = "b3";
+    static final String TRACE_ID_HEADER = "X-B3-TraceId";
+    static final String SPAN_ID_HEADER = "X-B3-SpanId";
+    static final String SAMPLED_HEADER = "X-B3-Sampled";
+    static final String FLAGS_HEADER = "X-B3-Flags";
+
+    // Debug (X-B3-Flags: 1, or "d" in the single header) travels with the context to the next hop
+    private static final ContextKey<Boolean> DEBUG = ContextKey.named("b3-debug");
+
+    private static final int TRACE_ID_LENGTH = 32;
+    private static final int SHORT_TRACE_ID_LENGTH = 16;
+    private static final int SPAN_ID_LENGTH = 16;
+    // traceid-spanid-d: the longest single header prefix that is ever written
+    private static final int SINGLE_HEADER_LENGTH = TRACE_ID_LENGTH + 1 + SPAN_ID_LENGTH + 2;
+
+    private static final PlatformThreadCache<char[]> BUFFER =
+            new PlatformThreadCache<>(() -> new char[SINGLE_HEADER_LENGTH]);
+
+    private final boolean singleHeader;
+    private final List<String> fields;
+
+    private FastB3Propagator(boolean singleHeader) {
+        this.singleHeader = singleHeader;
+        this.fields = singleHeader
+                ? List.of(SINGLE_HEADER)
+                : List.of(TRACE_ID_HEADER, SPAN_ID_HEADER, SAMPLED_HEADER, FLAGS_HEADER);
+    }
+
+    /** Injects the {@code X-B3-*} headers, like {@code B3Propagator.injectingMultiHeaders()}. */
+    public static FastB3Propagator injectingMultiHeaders() {
+        return new FastB3Propagator(false);
+    }
+
+    /** Injects the single {@code b3} header, like {@code B3Propagator.injectingSingleHeader()}. */
+    public static FastB3Propagator injectingSingleHeader() {
+        return new FastB3Propagator(true);
+    }
+
+    @Override
+    public Collection<String> fields() {
+        return fields;
+    }
+
+    @Override
+    public <C> void inject(Context context, C carrier, TextMapSetter<C> setter) {
+        if (context == null || setter == null) {
+            return;
+        }
+        SpanContext spanContext = Span.fromContext(context).getSpanContext();
+        if (!spanContext.isValid()) {
+            return;
+        }
+        boolean debug = Boolean.TRUE.equals(context.get(DEBUG));
+        if (singleHeader) {
+            char[] buffer = BUFFER.get();
+            spanContext.getTraceId().getChars(0, TRACE_ID_LENGTH, buffer, 0);
+            buffer[TRACE_ID_LENGTH] = '-';
+            spanContext.getSpanId().getChars(0, SPAN_ID_LENGTH, buffer, TRACE_ID_LENGTH + 1);
+            buffer[SINGLE_HEADER_LENGTH - 2] = '-';
+            buffer[SINGLE_HEADER_LENGTH - 1] = debug ? 'd' : spanContext.isSampled() ? '1' : '0';
+            setter.set(carrier, SINGLE_HEADER, new String(buffer, 0, SINGLE_HEADER_LENGTH));
+            return;
+        }
+        setter.set(carrier, TRACE_ID_HEADER, spanContext.getTraceId());
+        setter.set(carrier, SPAN_ID_HEADER, spanContext.getSpanId());
+        if (debug) {
+            // Debug implies sampled, so X-B3-Sampled is left out
+            setter.set(carrier, FLAGS_HEADER, "1");
+        } else {
+            setter.set(carrier, SAMPLED_HEADER, spanContext.isSampled() ? "1" : "0");
+        }
+    }
+
+    @Override
+    public <C> Context extract(Context context, C carrier, TextMapGetter<C> getter) {
+        if (context == null) {
+            return Context.root();
+        }
+        if (getter == null) {
+            return context;
+        }
+        String single = getter.get(carrier, SINGLE_HEADER);
+        if (single != null) {
+            Context extracted = extractSingle(context, single);
+            if (extracted != null) {
+                return extracted;
+            }
+        }
+        return extractMulti(context, carrier, getter);
+    }
+
+    // traceid-spanid[-sampling[-parentspanid]]; null when the header does not hold ids
+    private static Context extractSingle(Context context, String header) {
+        int traceIdLength = header.indexOf('-');
+        if ((traceIdLength != TRACE_ID_LENGTH && traceIdLength != SHORT_TRACE_ID_LENGTH)
+                || !isValidId(header, 0, traceIdLength)) {
+            return null;
+        }
+        int spanIdStart = traceIdLength + 1;
+        int spanIdEnd = spanIdStart + SPAN_ID_LENGTH;
+        if (header.length() < spanIdEnd || !isValidId(header, spanIdStart, spanIdEnd)
+                || (header.length() > spanIdEnd && header.charAt(spanIdEnd) != '-')) {
+            return null;
+        }
+        boolean sampled = false;
+        boolean debug = false;
+        if (header.length() > spanIdEnd) {
+            int samplingStart = spanIdEnd + 1;
+            int samplingEnd = header.indexOf('-', samplingStart);
+            if (samplingEnd < 0) {
+                samplingEnd = header.length();
+            }
+            // Like the stock propagator, anything but 1, true or d means not sampled
+            int samplingLength = samplingEnd - samplingStart;
+            debug = samplingLength == 1 && header.charAt(samplingStart) == 'd';
+            sampled = debug
+                    || (samplingLength == 1 && header.charAt(samplingStart) == '1')
+                    || (samplingLength == 4 && header.regionMatches(true, samplingStart, "true", 0, 4));
+        }
+        String traceId = traceIdLength == TRACE_ID_LENGTH
+                ? header.substring(0, TRACE_ID_LENGTH)
+                : padTraceId(header, 0);
+        return withSpanContext(context, traceId, header.substring(spanIdStart, spanIdEnd), sampled, debug);
+    }
+
+    private static <C> Context extractMulti(Context context, C carrier, TextMapGetter<C> getter) {
+        String traceId = getter.get(carrier, TRACE_ID_HEADER);
+        if (traceId == null || (traceId.length() != TRACE_ID_LENGTH && traceId.length() != SHORT_TRACE_ID_LENGTH)
+                || !isValidId(traceId, 0, traceId.length())) {
+            return context;
+        }
+        String spanId = getter.get(carrier, SPAN_ID_HEADER);
+        if (spanId == null || spanId.length() != SPAN_ID_LENGTH || !isValidId(spanId, 0, SPAN_ID_LENGTH)) {
+            return context;
+        }
+        boolean debug = "1".equals(getter.get(carrier, FLAGS_HEADER));
+        boolean sampled = debug;
+        if (!debug) {
+            String sampledHeader = getter.get(carrier, SAMPLED_HEADER);
+            sampled = "1".equals(sampledHeader) || "true".equalsIgnoreCase(sampledHeader);
+        }
+        if (traceId.length() == SHORT_TRACE_ID_LENGTH) {
+            traceId = padTraceId(traceId, 0);
+        }
+        return withSpanContext(context, traceId, spanId, sampled, debug);
+    }
+
+    private static Context withSpanContext(Context context, String traceId, String spanId, boolean sampled,
+                                           boolean debug) {
+        SpanContext spanContext = SpanContext.createFromRemoteParent(traceId, spanId,
+                sampled ? TraceFlags.getSampled() : TraceFlags.getDefault(), TraceState.getDefault());
+        Context extracted = context.with(Span.wrap(spanContext));
+        return debug ? extracted.with(DEBUG, Boolean.TRUE) : extracted;
+    }
+
+    // Lowercase hex and not all zeros, as the OTel id validation requires
+    private static boolean isValidId(String value, int start, int end) {
+        boolean nonZero = false;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+            nonZero |= c != '0';
+        }
+        return nonZero;
+    }
+
+    // A 64-bit trace id left-padded to 128 bits
+    private static String padTraceId(String value, int start) {
+        char[] buffer = BUFFER.get();
+        for (int i = 0; i < TRACE_ID_LENGTH - SHORT_TRACE_ID_LENGTH; i++) {
+            buffer[i] = '0';
+        }
+        value.getChars(start, start + SHORT_TRACE_ID_LENGTH, buffer, TRACE_ID_LENGTH - SHORT_TRACE_ID_LENGTH);
+        return new String(buffer, 0, TRACE_ID_LENGTH);
+    }
+
+    @Override
+    public String toString() {
+        return singleHeader ? "FastB3Propagator{b3}" : "FastB3Propagator{X-B3-*}";
+    }
+}
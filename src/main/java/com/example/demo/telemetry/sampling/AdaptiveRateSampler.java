@@ -0,0 +1,146 @@
+package com.example.demo.telemetry.sampling;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Samples to a spans-per-second budget rather than a fixed ratio. Every span it is asked about is counted in a
+ * sliding window of time buckets, and the sampling probability is {@code budget / observed rate}, capped at 1.
+ * The probability is recomputed once per bucket, from the completed buckets of the window, so the sampler
+ * follows traffic within about one window.
+ * <p>
+ * Sampled spans carry the probability they were sampled with as {@code sampling.probability}, so a backend can
+ * weight each one by its inverse to estimate the real span count. Meant as a root sampler, one per endpoint
+ * under a {@link RouteSampler}: child spans follow the root and do not carry the attribute.
+ * <p>
+ * Each bucket packs its number and its count into one long, so counting and rolling over are a single CAS and
+ * no count is lost to a concurrent rollover.
+ */
+public final class AdaptiveRateSampler implements Sampler {
+
+    public static final AttributeKey<Double> SAMPLING_PROBABILITY = AttributeKey.doubleKey("sampling.probability");
+
+    private static final int COUNT_BITS = 32;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final double spansPerSecond;
+    private final long bucketNanos;
+    private final int buckets;
+    private final double bucketSeconds;
+    // Per slot: bucket number (low 32 bits) << 32 | count
+    private final AtomicLongArray slots;
+    private final long originNanos = System.nanoTime();
+
+    private volatile Estimate estimate;
+
+    public AdaptiveRateSampler(double spansPerSecond) {
+        this(spansPerSecond, Duration.ofSeconds(5), 10);
+    }
+
+    public AdaptiveRateSampler(double spansPerSecond, Duration window, int buckets) {
+        if (spansPerSecond <= 0) {
+            throw new IllegalArgumentException("spansPerSecond must be > 0");
+        }
+        if (buckets < 2) {
+            throw new IllegalArgumentException("buckets must be >= 2");
+        }
+        this.spansPerSecond = spansPerSecond;
+        this.buckets = buckets;
+        this.bucketNanos = window.toNanos() / buckets;
+        if (bucketNanos <= 0) {
+            throw new IllegalArgumentException("window too short for " + buckets + " buckets");
+        }
+        this.bucketSeconds = bucketNanos / (double) Duration.ofSeconds(1).toNanos();
+        this.slots = new AtomicLongArray(buckets);
+        this.estimate = new Estimate(0, 1.0);
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        long bucket = (System.nanoTime() - originNanos) / bucketNanos;
+        count(bucket);
+        Estimate current = estimate;
+        if (current.bucket != bucket) {
+            // Benign race: concurrent threads compute the same estimate from the same completed buckets
+            current = new Estimate(bucket, probability(bucket));
+            estimate = current;
+        }
+        if (current.probability >= 1.0 || ThreadLocalRandom.current().nextDouble() < current.probability) {
+            return current.sampled;
+        }
+        return SamplingResult.drop();
+    }
+
+    /** The probability the sampler currently samples with. */
+    public double getProbability() {
+        return estimate.probability;
+    }
+
+    @Override
+    public String getDescription() {
+        return "AdaptiveRateSampler{spansPerSecond=" + spansPerSecond + ", window=" + bucketSeconds * buckets + "s}";
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+
+    private void count(long bucket) {
+        int slot = (int) (bucket % buckets);
+        long tag = (bucket & COUNT_MASK) << COUNT_BITS;
+        while (true) {
+            long value = slots.get(slot);
+            long updated = (value & ~COUNT_MASK) == tag
+                    ? (value & COUNT_MASK) == COUNT_MASK ? value : value + 1
+                    : tag | 1;
+            if (slots.compareAndSet(slot, value, updated)) {
+                return;
+            }
+        }
+    }
+
+    // Rate over the completed buckets of the window; 1 until one has completed
+    private double probability(long currentBucket) {
+        long completed = Math.min(currentBucket, buckets - 1);
+        if (completed == 0) {
+            return 1.0;
+        }
+        long total = 0;
+        for (long bucket = currentBucket - completed; bucket < currentBucket; bucket++) {
+            long value = slots.get((int) (bucket % buckets));
+            if ((value >>> COUNT_BITS) == (bucket & COUNT_MASK)) {
+                total += value & COUNT_MASK;
+            }
+        }
+        double rate = total / (completed * bucketSeconds);
+        return rate <= spansPerSecond ? 1.0 : spansPerSecond / rate;
+    }
+
+    // The sampled result is built once per bucket, so sampling allocates nothing
+    private static final class Estimate {
+
+        final long bucket;
+        final double probability;
+        final SamplingResult sampled;
+
+        Estimate(long bucket, double probability) {
+            this.bucket = bucket;
+            this.probability = probability;
+            this.sampled = SamplingResult.create(SamplingDecision.RECORD_AND_SAMPLE,
+                    Attributes.of(SAMPLING_PROBABILITY, probability));
+        }
+    }
+}
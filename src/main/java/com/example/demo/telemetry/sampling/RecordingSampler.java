@@ -0,0 +1,49 @@
+package com.example.demo.telemetry.sampling;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingDecision;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+
+import java.util.List;
+
+/**
+ * Records the spans the head sampler drops instead of discarding them, so a {@link TailSamplingSpanProcessor}
+ * can still keep their trace once it has ended. Recorded spans stay unsampled: they are not propagated as
+ * sampled and are only exported if the tail sampler keeps them.
+ */
+public final class RecordingSampler implements Sampler {
+
+    private final Sampler headSampler;
+
+    public RecordingSampler(Sampler headSampler) {
+        this.headSampler = headSampler;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        SamplingResult result = headSampler.shouldSample(
+                parentContext, traceId, name, spanKind, attributes, parentLinks);
+        if (result.getDecision() != SamplingDecision.DROP) {
+            return result;
+        }
+        Attributes added = result.getAttributes();
+        return added.isEmpty()
+                ? SamplingResult.recordOnly()
+                : SamplingResult.create(SamplingDecision.RECORD_ONLY, added);
+    }
+
+    @Override
+    public String getDescription() {
+        return "RecordingSampler{" + headSampler.getDescription() + '}';
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.demo.telemetry.sampling;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.data.LinkData;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import io.opentelemetry.sdk.trace.samplers.SamplingResult;
+import io.opentelemetry.semconv.SemanticAttributes;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleFunction;
+
+/**
+ * Samples server spans with a sampler per endpoint, a ratio or a rate budget, so cheap high-volume routes such
+ * as {@code /hello} can be recorded far less often than the rest. The route is read from the {@code http.route}
+ * start attribute, or {@code url.path} when the route template is not known yet; spans with neither, or with an
+ * unlisted route, go to the default sampler.
+ * <p>
+ * Meant as the root sampler of a {@code parentBased} sampler: spans whose trace started upstream follow the
+ * caller's decision and never reach it. Every route's sampler is built once, up front.
+ */
+public final class RouteSampler implements Sampler {
+
+    private final Map<String, Sampler> samplersByRoute;
+    private final Sampler defaultSampler;
+
+    public RouteSampler(Map<String, Sampler> samplersByRoute, Sampler defaultSampler) {
+        this.samplersByRoute = new HashMap<>(samplersByRoute);
+        this.defaultSampler = defaultSampler;
+    }
+
+    /**
+     * Trace id ratio samplers from {@code route=ratio} rules, e.g. {@code /hello=0.05}, on top of
+     * {@code defaultSampler}.
+     */
+    public static RouteSampler ofRatios(List<String> rules, Sampler defaultSampler) {
+        return new RouteSampler(parse(rules, "route=ratio", Sampler::traceIdRatioBased), defaultSampler);
+    }
+
+    /**
+     * {@link AdaptiveRateSampler}s from {@code route=spansPerSecond} rules, e.g. {@code /hello=20}, on top of
+     * {@code defaultSampler}.
+     */
+    public static RouteSampler ofSpansPerSecond(List<String> rules, Sampler defaultSampler) {
+        return new RouteSampler(parse(rules, "route=spansPerSecond", AdaptiveRateSampler::new), defaultSampler);
+    }
+
+    private static Map<String, Sampler> parse(List<String> rules, String format,
+                                              DoubleFunction<Sampler> samplerFactory) {
+        Map<String, Sampler> samplers = new HashMap<>();
+        for (String rule : rules) {
+            if (rule.isBlank()) {
+                continue;
+            }
+            int separator = rule.lastIndexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected " + format + ", got: " + rule);
+            }
+            String route = rule.substring(0, separator).trim();
+            double value = Double.parseDouble(rule.substring(separator + 1).trim());
+            samplers.put(route, samplerFactory.apply(value));
+        }
+        return samplers;
+    }
+
+    @Override
+    public SamplingResult shouldSample(Context parentContext, String traceId, String name, SpanKind spanKind,
+                                       Attributes attributes, List<LinkData> parentLinks) {
+        Sampler sampler = null;
+        if (spanKind == SpanKind.SERVER) {
+            String route = attributes.get(SemanticAttributes.HTTP_ROUTE);
+            if (route == null) {
+                route = attributes.get(SemanticAttributes.URL_PATH);
+            }
+            if (route != null) {
+                sampler = samplersByRoute.get(route);
+            }
+        }
+        return (sampler != null ? sampler : defaultSampler)
+                .shouldSample(parentContext, traceId, name, spanKind, attributes, parentLinks);
+    }
+
+    @Override
+    public String getDescription() {
+        StringBuilder description = new StringBuilder("RouteSampler{routes={");
+        samplersByRoute.forEach((route, sampler) ->
+                description.append(route).append('=').append(sampler.getDescription()).append(", "));
+        if (!samplersByRoute.isEmpty()) {
+            description.setLength(description.length() - 2);
+        }
+        return description.append("}, default=").append(defaultSampler.getDescription()).append('}').toString();
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+}
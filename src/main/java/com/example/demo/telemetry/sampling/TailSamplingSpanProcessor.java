@@ -0,0 +1,514 @@
+package com.example.demo.telemetry.sampling;
+
+import com.example.demo.telemetry.metrics.TailSamplingStats;
+import com.example.demo.telemetry.metrics.TailSamplingStats.Trigger;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.common.InstrumentationLibraryInfo;
+import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.DelegatingSpanData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tail sampling in front of the exporting span processor. Spans the head sampler kept are passed straight
+ * through. Spans it only recorded (see {@link RecordingSampler}) are buffered per trace until the trace's
+ * local root ends, and the whole trace is then kept if any of its spans failed, the local root took at least
+ * the latency threshold, or a span carries one of the configured attributes. Kept spans are handed on as
+ * sampled, so the exporting processor exports them like any other.
+ * <p>
+ * The buffer holds at most {@code maxBufferedSpans} spans. Past that, the oldest traces are decided early on
+ * what has arrived so far; traces whose local root never ends here are decided once the decision wait has
+ * passed. Spans ending after their trace was decided follow the decision, which is remembered for about one
+ * decision wait. Traces decided by their local root are unlinked from the arrival order in bulk, so it holds
+ * at most about {@code maxBufferedSpans} of them besides the open ones. Decisions, their latency and the
+ * buffer occupancy go to {@link TailSamplingStats}.
+ */
+public final class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private final SpanProcessor delegate;
+    private final long latencyThresholdNanos;
+    private final List<AttributeRule> attributeRules;
+    private final long decisionWaitNanos;
+    private final int maxBufferedSpans;
+    private final int maxRememberedDecisions;
+    private final TailSamplingStats stats;
+
+    private final Map<String, TraceBuffer> traces = new ConcurrentHashMap<>();
+    private final Queue<TraceBuffer> arrivalOrder = new ConcurrentLinkedQueue<>();
+    // Entries in arrivalOrder, including traces their local root already decided, which are not unlinked
+    private final AtomicInteger queuedBuffers = new AtomicInteger();
+    // Serializes early and timed-out decisions. A lock, not a monitor: evictions run on request threads and
+    // may block in the delegate, which must not pin a virtual thread's carrier
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicInteger bufferedSpans = new AtomicInteger();
+    // Two generations of decided trace ids for late spans; the sweeper retires one per decision wait
+    private volatile Map<String, Boolean> decisions = new ConcurrentHashMap<>();
+    private volatile Map<String, Boolean> previousDecisions = new ConcurrentHashMap<>();
+    private long decisionsRotatedNanos = System.nanoTime();
+
+    private final ScheduledExecutorService sweeper;
+    private final AtomicBoolean isShutdown = new AtomicBoolean();
+
+    private TailSamplingSpanProcessor(Builder builder) {
+        this.delegate = builder.delegate;
+        this.latencyThresholdNanos = builder.latencyThreshold.toNanos();
+        this.attributeRules = List.copyOf(builder.attributeRules);
+        this.decisionWaitNanos = builder.decisionWait.toNanos();
+        this.maxBufferedSpans = builder.maxBufferedSpans;
+        this.maxRememberedDecisions = builder.maxBufferedSpans;
+        this.stats = builder.stats;
+        if (stats != null) {
+            stats.setBuffer(bufferedSpans::get, traces::size, maxBufferedSpans);
+        }
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tail-sampling-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepNanos = Math.max(decisionWaitNanos / 10, TimeUnit.MILLISECONDS.toNanos(100));
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepNanos, sweepNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static Builder builder(SpanProcessor delegate) {
+        return new Builder(delegate);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        delegate.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        if (span.getSpanContext().isSampled()) {
+            // Kept by the head sampler, and so is the rest of its trace
+            delegate.onEnd(span);
+            return;
+        }
+        String traceId = span.getSpanContext().getTraceId();
+        SpanData spanData = span.toSpanData();
+        if (followDecision(traceId, spanData)) {
+            return;
+        }
+        boolean localRoot = !span.getParentSpanContext().isValid() || span.getParentSpanContext().isRemote();
+        boolean interesting = isInteresting(spanData, localRoot);
+        while (true) {
+            TraceBuffer buffer = traces.get(traceId);
+            if (buffer == null) {
+                TraceBuffer created = new TraceBuffer(traceId, System.nanoTime());
+                buffer = traces.putIfAbsent(traceId, created);
+                if (buffer == null) {
+                    buffer = created;
+                    arrivalOrder.add(created);
+                    queuedBuffers.incrementAndGet();
+                }
+            }
+            if (buffer.add(spanData, interesting)) {
+                break;
+            }
+            // Decided meanwhile: either the decision is remembered by now or the buffer is gone from the map
+            if (followDecision(traceId, spanData)) {
+                return;
+            }
+        }
+        bufferedSpans.incrementAndGet();
+        if (localRoot) {
+            TraceBuffer buffer = traces.get(traceId);
+            if (buffer != null) {
+                decide(buffer, Trigger.ROOT);
+            }
+            if (queuedBuffers.get() - traces.size() > maxBufferedSpans) {
+                pruneDecided();
+            }
+        }
+        if (bufferedSpans.get() > maxBufferedSpans) {
+            evictOldest();
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    /** Flushes the exporting processor; traces still awaiting a decision are not flushed. */
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        if (isShutdown.getAndSet(true)) {
+            return CompletableResultCode.ofSuccess();
+        }
+        sweeper.shutdownNow();
+        evictionLock.lock();
+        try {
+            for (TraceBuffer buffer; (buffer = arrivalOrder.poll()) != null; ) {
+                queuedBuffers.decrementAndGet();
+                decide(buffer, Trigger.TIMEOUT);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        return delegate.shutdown();
+    }
+
+    public int getBufferedSpans() {
+        return bufferedSpans.get();
+    }
+
+    public int getBufferedTraces() {
+        return traces.size();
+    }
+
+    @Override
+    public String toString() {
+        return "TailSamplingSpanProcessor{latencyThreshold=" + Duration.ofNanos(latencyThresholdNanos)
+                + ", attributeRules=" + attributeRules + ", decisionWait=" + Duration.ofNanos(decisionWaitNanos)
+                + ", maxBufferedSpans=" + maxBufferedSpans + ", delegate=" + delegate + '}';
+    }
+
+    private boolean isInteresting(SpanData span, boolean localRoot) {
+        if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+            return true;
+        }
+        if (localRoot && span.getEndEpochNanos() - span.getStartEpochNanos() >= latencyThresholdNanos) {
+            return true;
+        }
+        for (AttributeRule rule : attributeRules) {
+            if (rule.matches(span.getAttributes())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Applies a remembered decision to a span that ended after its trace was decided
+    private boolean followDecision(String traceId, SpanData span) {
+        Boolean keep = decisions.get(traceId);
+        if (keep == null) {
+            keep = previousDecisions.get(traceId);
+        }
+        if (keep == null) {
+            return false;
+        }
+        if (stats != null) {
+            stats.recordLateSpan();
+        }
+        if (keep) {
+            delegate.onEnd(new KeptSpan(span));
+        }
+        return true;
+    }
+
+    private void decide(TraceBuffer buffer, Trigger trigger) {
+        List<SpanData> spans = buffer.close();
+        if (spans == null) {
+            return;
+        }
+        boolean keep = buffer.interesting;
+        Map<String, Boolean> current = decisions;
+        if (current.size() < maxRememberedDecisions) {
+            current.put(buffer.traceId, keep);
+        }
+        traces.remove(buffer.traceId, buffer);
+        bufferedSpans.addAndGet(-spans.size());
+        if (stats != null) {
+            stats.recordDecision(keep, trigger, System.nanoTime() - buffer.createdNanos);
+        }
+        if (keep) {
+            for (SpanData span : spans) {
+                delegate.onEnd(new KeptSpan(span));
+            }
+        }
+    }
+
+    private void evictOldest() {
+        evictionLock.lock();
+        try {
+            while (bufferedSpans.get() > maxBufferedSpans) {
+                TraceBuffer oldest = arrivalOrder.poll();
+                if (oldest == null) {
+                    return;
+                }
+                queuedBuffers.decrementAndGet();
+                decide(oldest, Trigger.EVICTED);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // Unlinks traces decided by their local root while an older trace still holds the head of arrivalOrder.
+    // Runs once they outnumber maxBufferedSpans, so each pass removes at least that many entries
+    private void pruneDecided() {
+        evictionLock.lock();
+        try {
+            if (queuedBuffers.get() - traces.size() <= maxBufferedSpans) {
+                return;
+            }
+            for (Iterator<TraceBuffer> it = arrivalOrder.iterator(); it.hasNext(); ) {
+                if (it.next().isClosed()) {
+                    it.remove();
+                    queuedBuffers.decrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        evictionLock.lock();
+        try {
+            for (TraceBuffer head; (head = arrivalOrder.peek()) != null; ) {
+                if (!head.isClosed() && now - head.createdNanos < decisionWaitNanos) {
+                    break;
+                }
+                arrivalOrder.poll();
+                queuedBuffers.decrementAndGet();
+                decide(head, Trigger.TIMEOUT);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+        if (now - decisionsRotatedNanos >= decisionWaitNanos) {
+            previousDecisions = decisions;
+            decisions = new ConcurrentHashMap<>();
+            decisionsRotatedNanos = now;
+        }
+    }
+
+    /** Spans of one trace awaiting the decision; its monitor is only held to swap the list, never to block. */
+    private static final class TraceBuffer {
+
+        final String traceId;
+        final long createdNanos;
+        private List<SpanData> spans = new ArrayList<>();
+        volatile boolean interesting;
+
+        TraceBuffer(String traceId, long createdNanos) {
+            this.traceId = traceId;
+            this.createdNanos = createdNanos;
+        }
+
+        /** False once the trace has been decided. */
+        synchronized boolean add(SpanData span, boolean interesting) {
+            if (spans == null) {
+                return false;
+            }
+            spans.add(span);
+            if (interesting) {
+                this.interesting = true;
+            }
+            return true;
+        }
+
+        /** The buffered spans, or null if already decided. */
+        synchronized List<SpanData> close() {
+            List<SpanData> closed = spans;
+            spans = null;
+            return closed;
+        }
+
+        synchronized boolean isClosed() {
+            return spans == null;
+        }
+    }
+
+    /** Keeps traces that have a span with this attribute value; the value is compared as a string or a long. */
+    public static final class AttributeRule {
+
+        private final AttributeKey<String> stringKey;
+        private final AttributeKey<Long> longKey;
+        private final String value;
+        private final Long longValue;
+
+        public AttributeRule(String key, String value) {
+            this.stringKey = AttributeKey.stringKey(key);
+            this.longKey = AttributeKey.longKey(key);
+            this.value = value;
+            Long parsed;
+            try {
+                parsed = Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                parsed = null;
+            }
+            this.longValue = parsed;
+        }
+
+        /** Parses {@code key=value}. */
+        public static AttributeRule parse(String rule) {
+            int separator = rule.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + rule);
+            }
+            return new AttributeRule(rule.substring(0, separator).trim(), rule.substring(separator + 1).trim());
+        }
+
+        boolean matches(Attributes attributes) {
+            return value.equals(attributes.get(stringKey))
+                    || (longValue != null && longValue.equals(attributes.get(longKey)));
+        }
+
+        @Override
+        public String toString() {
+            return stringKey.getKey() + '=' + value;
+        }
+    }
+
+    /** A buffered span the tail sampler kept, presented as sampled to the exporting processor. */
+    private static final class KeptSpan implements ReadableSpan {
+
+        private final SpanData spanData;
+
+        KeptSpan(SpanData recorded) {
+            SpanContext context = recorded.getSpanContext();
+            SpanContext sampled = SpanContext.create(context.getTraceId(), context.getSpanId(),
+                    TraceFlags.getSampled(), context.getTraceState());
+            this.spanData = new DelegatingSpanData(recorded) {
+                @Override
+                public SpanContext getSpanContext() {
+                    return sampled;
+                }
+            };
+        }
+
+        @Override
+        public SpanContext getSpanContext() {
+            return spanData.getSpanContext();
+        }
+
+        @Override
+        public SpanContext getParentSpanContext() {
+            return spanData.getParentSpanContext();
+        }
+
+        @Override
+        public String getName() {
+            return spanData.getName();
+        }
+
+        @Override
+        public SpanData toSpanData() {
+            return spanData;
+        }
+
+        @Override
+        @Deprecated
+        public InstrumentationLibraryInfo getInstrumentationLibraryInfo() {
+            return spanData.getInstrumentationLibraryInfo();
+        }
+
+        @Override
+        public InstrumentationScopeInfo getInstrumentationScopeInfo() {
+            return spanData.getInstrumentationScopeInfo();
+        }
+
+        @Override
+        public boolean hasEnded() {
+            return true;
+        }
+
+        @Override
+        public long getLatencyNanos() {
+            return spanData.getEndEpochNanos() - spanData.getStartEpochNanos();
+        }
+
+        @Override
+        public SpanKind getKind() {
+            return spanData.getKind();
+        }
+
+        @Override
+        public <T> T getAttribute(AttributeKey<T> key) {
+            return spanData.getAttributes().get(key);
+        }
+    }
+
+    public static final class Builder {
+
+        private final SpanProcessor delegate;
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private final List<AttributeRule> attributeRules = new ArrayList<>();
+        private Duration decisionWait = Duration.ofSeconds(30);
+        private int maxBufferedSpans = 100_000;
+        private TailSamplingStats stats;
+
+        private Builder(SpanProcessor delegate) {
+            this.delegate = Objects.requireNonNull(delegate, "delegate");
+        }
+
+        /** Keep traces whose local root took at least this long. */
+        public Builder setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = Objects.requireNonNull(latencyThreshold, "latencyThreshold");
+            return this;
+        }
+
+        /** Keep traces with a span carrying this attribute value. */
+        public Builder addAttributeRule(AttributeRule attributeRule) {
+            this.attributeRules.add(Objects.requireNonNull(attributeRule, "attributeRule"));
+            return this;
+        }
+
+        /** How long a trace is buffered for its local root before it is decided on what has arrived. */
+        public Builder setDecisionWait(Duration decisionWait) {
+            if (decisionWait.isNegative() || decisionWait.isZero()) {
+                throw new IllegalArgumentException("decisionWait must be positive");
+            }
+            this.decisionWait = decisionWait;
+            return this;
+        }
+
+        /** Upper bound on buffered spans; the oldest traces are decided early beyond it. */
+        public Builder setMaxBufferedSpans(int maxBufferedSpans) {
+            if (maxBufferedSpans <= 0) {
+                throw new IllegalArgumentException("maxBufferedSpans must be positive");
+            }
+            this.maxBufferedSpans = maxBufferedSpans;
+            return this;
+        }
+
+        public Builder setStats(TailSamplingStats stats) {
+            this.stats = stats;
+            return this;
+        }
+
+        public TailSamplingSpanProcessor build() {
+            return new TailSamplingSpanProcessor(this);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.telemetry.web;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.semconv.SemanticAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The attribute set of a finished HTTP server request: method, route template and status code. Built once
+ * per combination and cached, and shared by {@link HttpServerMetrics} and {@link HttpServerTracing}, which
+ * record the same set on the request's metrics and at the end of its span. A route holds one array of status
+ * codes per method, whichever of the two asked first; statuses outside 0-599 are built on every call.
+ */
+public final class HttpRouteAttributes {
+
+    private static final int STATUS_CODES = 600;
+
+    private final Map<String, Map<String, Attributes[]>> attributesByRoute = new ConcurrentHashMap<>();
+
+    /**
+     * @param method request method, e.g. {@code GET}
+     * @param route  matched route template, e.g. {@code /hello}
+     * @param status response status code
+     */
+    public Attributes get(String method, String route, int status) {
+        if (status < 0 || status >= STATUS_CODES) {
+            // No slot of its own; caching it anywhere would report later codes under this one
+            return build(method, route, status);
+        }
+        Map<String, Attributes[]> byMethod = attributesByRoute.get(route);
+        if (byMethod == null) {
+            byMethod = attributesByRoute.computeIfAbsent(route, key -> new ConcurrentHashMap<>());
+        }
+        Attributes[] byStatus = byMethod.get(method);
+        if (byStatus == null) {
+            byStatus = byMethod.computeIfAbsent(method, key -> new Attributes[STATUS_CODES]);
+        }
+        Attributes attributes = byStatus[status];
+        if (attributes == null) {
+            // Racing threads may both build it; the instances are equal, so either one may win
+            attributes = build(method, route, status);
+            byStatus[status] = attributes;
+        }
+        return attributes;
+    }
+
+    private static Attributes build(String method, String route, int status) {
+        return Attributes.of(
+                SemanticAttributes.HTTP_REQUEST_METHOD, method,
+                SemanticAttributes.HTTP_ROUTE, route,
+                SemanticAttributes.HTTP_RESPONSE_STATUS_CODE, (long) status);
+    }
+}
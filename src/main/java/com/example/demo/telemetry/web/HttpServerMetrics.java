@@ -0,0 +1,47 @@
+package com.example.demo.telemetry.web;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RED metrics for HTTP server requests: the {@code http.server.request.duration} histogram of the OTel HTTP
+ * semantic conventions, per route, method and status code. Its count is the request count, so rate and errors
+ * come from the same series as latency and no separate counter is recorded.
+ * <p>
+ * Instruments are created once and every attribute set is built once and cached in {@link HttpRouteAttributes},
+ * so recording a request that has been seen before allocates nothing: two map lookups on strings the servlet
+ * container and Spring already hold, one array read, then the SDK's own aggregator update.
+ */
+public final class HttpServerMetrics {
+
+    // Bucket boundaries recommended by the semantic conventions for http.server.request.duration
+    private static final List<Double> DURATION_BUCKETS_SECONDS =
+            List.of(0.005, 0.01, 0.025, 0.05, 0.075, 0.1, 0.25, 0.5, 0.75, 1.0, 2.5, 5.0, 7.5, 10.0);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final DoubleHistogram duration;
+    private final HttpRouteAttributes routeAttributes;
+
+    public HttpServerMetrics(Meter meter, HttpRouteAttributes routeAttributes) {
+        this.routeAttributes = routeAttributes;
+        this.duration = meter.histogramBuilder("http.server.request.duration")
+                .setDescription("Duration of HTTP server requests")
+                .setUnit("s")
+                .setExplicitBucketBoundariesAdvice(DURATION_BUCKETS_SECONDS)
+                .build();
+    }
+
+    /**
+     * @param method       request method, e.g. {@code GET}
+     * @param route        matched route template, e.g. {@code /hello}
+     * @param status       response status code
+     * @param durationNanos time from receiving the request to completing the response
+     */
+    public void record(String method, String route, int status, long durationNanos) {
+        duration.record(durationNanos / NANOS_PER_SECOND, routeAttributes.get(method, route, status));
+    }
+}
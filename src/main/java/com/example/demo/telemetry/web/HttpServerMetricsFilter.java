@@ -0,0 +1,89 @@
+package com.example.demo.telemetry.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times every request and records it in {@link HttpServerMetrics} under the route template Spring MVC
+ * matched, so {@code /hello?name=x} and {@code /hello?name=y} share one series. Requests that matched no
+ * handler are not recorded, which keeps unknown paths from creating series. Requests that go async are
+ * recorded when the async processing completes, with the status it ended with.
+ */
+@SuppressWarnings("serial")
+public class HttpServerMetricsFilter extends HttpFilter {
+
+    private final HttpServerMetrics metrics;
+
+    public HttpServerMetricsFilter(HttpServerMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (!failed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new RecordListener(request, response, start));
+            } else {
+                record(request, response, failed, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, boolean failed, long start) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (route instanceof String) {
+            // An exception escaping the chain becomes a 500 once the container handles it
+            int status = failed && response.getStatus() < 400 ? 500 : response.getStatus();
+            metrics.record(request.getMethod(), (String) route, status, System.nanoTime() - start);
+        }
+    }
+
+    private final class RecordListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+        private boolean failed;
+
+        RecordListener(HttpServletRequest request, HttpServletResponse response, long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response, failed, start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // The listener is dropped when async processing restarts, so register it again
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
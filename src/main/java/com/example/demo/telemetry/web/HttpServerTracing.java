@@ -0,0 +1,139 @@
+package com.example.demo.telemetry.web;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.context.propagation.TextMapPropagator;
+import io.opentelemetry.semconv.SemanticAttributes;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server spans for HTTP requests, named and attributed after the OTel HTTP semantic conventions. The context
+ * of the caller is extracted with the configured propagators, so the span joins the caller's trace. It knows
+ * nothing of the web stack: {@link HttpServerTracingFilter} drives it for servlet requests, and the reactive
+ * module's web filter for WebFlux ones.
+ * <p>
+ * Span names are built once per route and method and cached, and the end attributes come from the
+ * {@link HttpRouteAttributes} that {@link HttpServerMetrics} records with: a span for a route seen before gets
+ * its name and its end attributes without any string or {@code Attributes} being built. Start attributes
+ * ({@code url.path} for the samplers) are cached for paths that are routes themselves, such as {@code /hello};
+ * other paths get theirs built per request.
+ */
+public final class HttpServerTracing {
+
+    /** MDC keys of the request's ids, as the console pattern in {@code logback-spring.xml} reads them. */
+    public static final String TRACE_ID_KEY = "trace_id";
+    public static final String SPAN_ID_KEY = "span_id";
+
+    // Schemes whose start attributes are cached; the index is the slot in startAttributesByPath
+    private static final List<String> SCHEMES = List.of("http", "https");
+
+    private final Tracer tracer;
+    private final TextMapPropagator propagator;
+    private final HttpRouteAttributes routeAttributes;
+    private final Map<String, Map<String, String>> spanNamesByRoute = new ConcurrentHashMap<>();
+    // path -> method -> SCHEMES; only paths that are literal routes, so bounded by the handler mappings
+    private final Map<String, Map<String, Attributes[]>> startAttributesByPath = new ConcurrentHashMap<>();
+
+    public HttpServerTracing(OpenTelemetry openTelemetry, HttpRouteAttributes routeAttributes) {
+        this.routeAttributes = routeAttributes;
+        this.tracer = openTelemetry.getTracer("com.example.demo.http");
+        this.propagator = openTelemetry.getPropagators().getTextMapPropagator();
+    }
+
+    /**
+     * Starts the server span of a request, a child of the caller's span if the request's headers, read from
+     * {@code headers} with {@code getter}, carry one.
+     */
+    public <C> Span startSpan(C headers, TextMapGetter<C> getter, String method, String path, String scheme) {
+        Context parent = propagator.extract(Context.root(), headers, getter);
+        SpanBuilder builder = tracer.spanBuilder(method)
+                .setSpanKind(SpanKind.SERVER)
+                .setParent(parent);
+        Attributes startAttributes = cachedStartAttributes(path, method, scheme);
+        if (startAttributes != null) {
+            builder.setAllAttributes(startAttributes);
+        } else {
+            builder.setAttribute(SemanticAttributes.HTTP_REQUEST_METHOD, method)
+                    .setAttribute(SemanticAttributes.URL_PATH, path)
+                    .setAttribute(SemanticAttributes.URL_SCHEME, scheme);
+        }
+        return builder.startSpan();
+    }
+
+    /** Names the span after the route the framework matched, e.g. {@code GET /hello}. */
+    public void routeMatched(Span span, String method, String path, String scheme, String route) {
+        span.updateName(spanName(route, method));
+        span.setAttribute(SemanticAttributes.HTTP_ROUTE, route);
+        if (route.equals(path)) {
+            cacheStartAttributes(route, method, scheme);
+        }
+    }
+
+    /**
+     * Ends the span with the response status; {@code route} is null for requests that matched no handler.
+     * Server errors and exceptions mark the span as failed, client errors do not.
+     */
+    public void endSpan(Span span, String method, String route, int status, Throwable error) {
+        if (route != null) {
+            span.setAllAttributes(routeAttributes.get(method, route, status));
+        } else {
+            span.setAttribute(SemanticAttributes.HTTP_RESPONSE_STATUS_CODE, (long) status);
+        }
+        if (error != null) {
+            span.recordException(error);
+            span.setStatus(StatusCode.ERROR);
+        } else if (status >= 500) {
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    private String spanName(String route, String method) {
+        Map<String, String> byMethod = spanNamesByRoute.get(route);
+        if (byMethod == null) {
+            byMethod = spanNamesByRoute.computeIfAbsent(route, key -> new ConcurrentHashMap<>());
+        }
+        String spanName = byMethod.get(method);
+        if (spanName == null) {
+            spanName = byMethod.computeIfAbsent(method, key -> method + ' ' + route);
+        }
+        return spanName;
+    }
+
+    private Attributes cachedStartAttributes(String path, String method, String scheme) {
+        int index = SCHEMES.indexOf(scheme);
+        if (index < 0) {
+            return null;
+        }
+        Map<String, Attributes[]> byMethod = startAttributesByPath.getOrDefault(path, Collections.emptyMap());
+        Attributes[] byScheme = byMethod.get(method);
+        return byScheme == null ? null : byScheme[index];
+    }
+
+    private void cacheStartAttributes(String path, String method, String scheme) {
+        int index = SCHEMES.indexOf(scheme);
+        if (index < 0) {
+            return;
+        }
+        Attributes[] byScheme = startAttributesByPath
+                .computeIfAbsent(path, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, key -> new Attributes[SCHEMES.size()]);
+        if (byScheme[index] == null) {
+            byScheme[index] = Attributes.of(
+                    SemanticAttributes.HTTP_REQUEST_METHOD, method,
+                    SemanticAttributes.URL_PATH, path,
+                    SemanticAttributes.URL_SCHEME, SCHEMES.get(index));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.demo.telemetry.web;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Starts a server span per request with {@link HttpServerTracing}, makes it current for the rest of the
+ * chain, and puts its ids in the MDC as {@code trace_id} and {@code span_id} for the console pattern. The ids
+ * are the span context's own strings, so nothing is formatted per request. {@link HttpServerTracingInterceptor}
+ * names the span once Spring MVC has matched a route; requests that go async end their span when the async
+ * processing completes.
+ */
+@SuppressWarnings("serial")
+public class HttpServerTracingFilter extends HttpFilter {
+
+    /** Request attribute holding the request's server span. */
+    public static final String SPAN_ATTRIBUTE = HttpServerTracingFilter.class.getName() + ".span";
+
+    private static final TextMapGetter<HttpServletRequest> GETTER = new TextMapGetter<>() {
+        @Override
+        public Iterable<String> keys(HttpServletRequest request) {
+            return () -> request.getHeaderNames().asIterator();
+        }
+
+        @Override
+        public String get(HttpServletRequest request, String key) {
+            return request == null ? null : request.getHeader(key);
+        }
+    };
+
+    private final HttpServerTracing tracing;
+
+    public HttpServerTracingFilter(HttpServerTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    @SuppressWarnings("try")
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request.getAttribute(SPAN_ATTRIBUTE) != null) {
+            // Error and async dispatches run inside the span of the original request
+            chain.doFilter(request, response);
+            return;
+        }
+        Span span = tracing.startSpan(request, GETTER, request.getMethod(), request.getRequestURI(),
+                request.getScheme());
+        request.setAttribute(SPAN_ATTRIBUTE, span);
+        SpanContext spanContext = span.getSpanContext();
+        MDC.put(HttpServerTracing.TRACE_ID_KEY, spanContext.getTraceId());
+        MDC.put(HttpServerTracing.SPAN_ID_KEY, spanContext.getSpanId());
+        Throwable error = null;
+        try (Scope ignored = span.makeCurrent()) {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException | Error e) {
+            error = e;
+            throw e;
+        } finally {
+            MDC.remove(HttpServerTracing.TRACE_ID_KEY);
+            MDC.remove(HttpServerTracing.SPAN_ID_KEY);
+            if (error == null && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new EndSpanListener(span, request));
+            } else {
+                // An exception escaping the chain becomes a 500 once the container handles it
+                int status = error != null && response.getStatus() < 400 ? 500 : response.getStatus();
+                tracing.endSpan(span, request.getMethod(), route(request), status, error);
+            }
+        }
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return route instanceof String ? (String) route : null;
+    }
+
+    private final class EndSpanListener implements AsyncListener {
+
+        private final Span span;
+        private final HttpServletRequest request;
+        private Throwable error;
+
+        EndSpanListener(Span span, HttpServletRequest request) {
+            this.span = span;
+            this.request = request;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            int status = error != null && response.getStatus() < 400 ? 500 : response.getStatus();
+            tracing.endSpan(span, request.getMethod(), route(request), status, error);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            error = event.getThrowable();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            error = event.getThrowable();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // The listener is dropped when async processing restarts, so register it again
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.demo.telemetry.web;
+
+import io.opentelemetry.api.trace.Span;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Names the server span started by {@link HttpServerTracingFilter} after the route template Spring MVC
+ * matched and adds {@code http.route}, before the handler runs. Error dispatches are left alone, so a failed
+ * request keeps the name of the route that failed rather than {@code /error}.
+ */
+public class HttpServerTracingInterceptor implements HandlerInterceptor {
+
+    private final HttpServerTracing tracing;
+
+    public HttpServerTracingInterceptor(HttpServerTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Object span = request.getAttribute(HttpServerTracingFilter.SPAN_ATTRIBUTE);
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (span instanceof Span && route instanceof String) {
+            tracing.routeMatched((Span) span, request.getMethod(), request.getRequestURI(), request.getScheme(),
+                    (String) route);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.telemetry.web;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request spans and metrics for the servlet stack. Kept out of {@code DemoApplication}, which the reactive
+ * module runs as well, so that nothing there needs the servlet API on the classpath.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServletTelemetryConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<HttpServerTracingFilter> httpServerTracingFilter(HttpServerTracing tracing) {
+        // First in the chain, so the server span covers every other filter, the metrics filter included
+        FilterRegistrationBean<HttpServerTracingFilter> registration =
+                new FilterRegistrationBean<>(new HttpServerTracingFilter(tracing));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public WebMvcConfigurer httpServerTracingConfigurer(HttpServerTracing tracing) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new HttpServerTracingInterceptor(tracing));
+            }
+        };
+    }
+
+    @Bean
+    public HttpServerMetricsFilter httpServerMetricsFilter(HttpServerMetrics metrics) {
+        return new HttpServerMetricsFilter(metrics);
+    }
+}